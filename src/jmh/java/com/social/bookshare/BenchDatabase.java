@@ -0,0 +1,48 @@
+package com.social.bookshare;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Shared setup of the database benchmarks.
+ * Needs a PostgreSQL (with PostGIS / pg_trgm where a benchmark says so):
+ * BENCH_DB_URL (jdbc:postgresql://...), BENCH_DB_USER, BENCH_DB_PASSWORD.
+ */
+public final class BenchDatabase {
+
+	private BenchDatabase() {
+		throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	public static Connection connect() throws SQLException {
+		return connect(new Properties());
+	}
+
+	/** @param driverProperties extra pgjdbc properties (e.g. reWriteBatchedInserts) */
+	public static Connection connect(Properties driverProperties) throws SQLException {
+		String url = System.getenv("BENCH_DB_URL");
+		if (url == null) {
+			throw new IllegalStateException("BENCH_DB_URL is not set");
+		}
+		Properties props = new Properties();
+		props.putAll(driverProperties);
+		props.setProperty("user", System.getenv("BENCH_DB_USER"));
+		props.setProperty("password", System.getenv("BENCH_DB_PASSWORD"));
+
+		return DriverManager.getConnection(url, props);
+	}
+
+	/** n points into table(location): 70% in the Seoul metro area, the rest over the peninsula */
+	public static void insertKoreanPoints(Connection connection, String table, int n) throws SQLException {
+		try (Statement st = connection.createStatement()) {
+			st.execute("INSERT INTO " + table + " (location)"
+					+ " SELECT CASE WHEN random() < 0.7"
+					+ "   THEN ST_SetSRID(ST_MakePoint(126.8 + random() * 0.4, 37.4 + random() * 0.3), 4326)"
+					+ "   ELSE ST_SetSRID(ST_MakePoint(126.0 + random() * 3.5, 33.0 + random() * 5.5), 4326) END"
+					+ " FROM generate_series(1, " + n + ")");
+		}
+	}
+}
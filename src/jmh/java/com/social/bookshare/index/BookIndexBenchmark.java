@@ -0,0 +1,57 @@
+package com.social.bookshare.index;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.social.bookshare.dto.response.BookSearchResult;
+
+/**
+ * BookIndex on the same generated 1M catalog as BookSearchBenchmark (SQL path), same queries plus a typeahead prefix.
+ * Compare both: ./gradlew jmh -Pjmh.includes='Book(Index|Search)Benchmark'
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class BookIndexBenchmark {
+
+	private static final int CATALOG_SIZE = 1_000_000;
+	private static final String[] FIRST = {"river", "garden", "night", "city", "data", "spring", "history", "novel", "한강", "바다", "서울", "소년"};
+	private static final String[] SECOND = {"of", "and", "의", "과"};
+	private static final String[] THIRD = {"stars", "memory", "time", "light", "바람", "시간", "기억"};
+	
+	@Param({"river", "gardn", "한강", "river of mem"})
+	private String query;
+	
+	private BookIndex index;
+	
+	@Setup
+	public void setup() {
+		index = new BookIndex();
+		for (int i = 1; i <= CATALOG_SIZE; i++) {
+			index.add(BookSearchResult.builder()
+					.title(FIRST[i % 12] + " " + SECOND[(i / 12) % 4] + " " + THIRD[(i / 48) % 7] + " " + i)
+					.volume((short) 1)
+					.className("LITERATURE")
+					.author("author " + (i % 50000))
+					.publisher("publisher " + (i % 2000))
+					.isbn13(String.format("%13d", i).replace(' ', '9'))
+					.build());
+		}
+	}
+	
+	@Benchmark
+	public List<BookSearchResult> search() {
+		return index.search(query, 20);
+	}
+}
@@ -0,0 +1,130 @@
+package com.social.bookshare.index;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.social.bookshare.BenchDatabase;
+
+/**
+ * Radius and k-nearest over 1M active locations: LocationGrid in-process vs the PostGIS queries it stands in for
+ * (ST_DWithin on geography, KNN by <->). 70% of the points fall in the Seoul metro area, the rest over South Korea.
+ * Needs a PostgreSQL with PostGIS, see BenchDatabase.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class LocationGridBenchmark {
+
+	private static final int LOCATIONS = 1_000_000;
+	private static final int K = 10;
+
+	@Param({"500", "3000", "10000"}) // meter
+	private double radius;
+
+	private Connection connection;
+	private LocationGrid grid;
+	private PreparedStatement radiusQuery;
+	private PreparedStatement nearestQuery;
+
+	@Setup(Level.Trial)
+	public void setup() throws SQLException {
+		connection = BenchDatabase.connect();
+
+		try (Statement st = connection.createStatement()) {
+			st.execute("DROP TABLE IF EXISTS bench_locations");
+			st.execute("CREATE TABLE bench_locations (id BIGSERIAL PRIMARY KEY, location geometry(Point, 4326) NOT NULL)");
+			BenchDatabase.insertKoreanPoints(connection, "bench_locations", LOCATIONS);
+			st.execute("CREATE INDEX ON bench_locations USING GIST (location)");
+			st.execute("CREATE INDEX ON bench_locations USING GIST ((location::geography))");
+			st.execute("ANALYZE bench_locations");
+		}
+
+		grid = new LocationGrid();
+		try (Statement st = connection.createStatement();
+				ResultSet rs = st.executeQuery("SELECT id, ST_Y(location), ST_X(location) FROM bench_locations")) {
+			while (rs.next()) {
+				grid.add(rs.getLong(1), rs.getDouble(2), rs.getDouble(3));
+			}
+		}
+
+		radiusQuery = connection.prepareStatement("SELECT id FROM bench_locations"
+				+ " WHERE ST_DWithin(location::geography, ST_SetSRID(ST_MakePoint(?, ?), 4326)::geography, ?)");
+		nearestQuery = connection.prepareStatement("SELECT id FROM bench_locations"
+				+ " ORDER BY location <-> ST_SetSRID(ST_MakePoint(?, ?), 4326) LIMIT ?");
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		radiusQuery.close();
+		nearestQuery.close();
+		try (Statement st = connection.createStatement()) {
+			st.execute("DROP TABLE IF EXISTS bench_locations");
+		}
+		connection.close();
+	}
+
+	@Benchmark
+	public List<LocationGrid.Hit> gridRadius() {
+		double[] user = seoulUser();
+		return grid.withinRadius(user[0], user[1], radius);
+	}
+
+	@Benchmark
+	public List<LocationGrid.Hit> gridNearest() {
+		double[] user = seoulUser();
+		return grid.nearest(user[0], user[1], K);
+	}
+
+	@Benchmark
+	public List<Long> postgisRadius() throws SQLException {
+		double[] user = seoulUser();
+		radiusQuery.setDouble(1, user[1]);
+		radiusQuery.setDouble(2, user[0]);
+		radiusQuery.setDouble(3, radius);
+		return ids(radiusQuery);
+	}
+
+	@Benchmark
+	public List<Long> postgisNearest() throws SQLException {
+		double[] user = seoulUser();
+		nearestQuery.setDouble(1, user[1]);
+		nearestQuery.setDouble(2, user[0]);
+		nearestQuery.setInt(3, K);
+		return ids(nearestQuery);
+	}
+
+	private static double[] seoulUser() {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		return new double[] { 37.4 + random.nextDouble() * 0.3, 126.8 + random.nextDouble() * 0.4 };
+	}
+
+	private static List<Long> ids(PreparedStatement ps) throws SQLException {
+		List<Long> ids = new ArrayList<>();
+		try (ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				ids.add(rs.getLong(1));
+			}
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,146 @@
+package com.social.bookshare.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.social.bookshare.BenchDatabase;
+
+/**
+ * Multi-row insert of loan_histories-like rows, the JDBC traffic Hibernate produces for saveAll:
+ * IDENTITY (one INSERT ... RETURNING per row, no batching possible) vs a pooled sequence
+ * (one nextval per 50 ids, JDBC batch of 50), with and without pgjdbc reWriteBatchedInserts.
+ * Needs a PostgreSQL, see BenchDatabase.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BatchInsertBenchmark {
+
+	private static final int ALLOCATION_SIZE = 50; // = @SequenceGenerator allocationSize, hibernate.jdbc.batch_size
+
+	private static final String IDENTITY_SQL = "INSERT INTO bench_inserts_identity"
+			+ " (user_book_id, loaner_id, loan_days, loan_status, created_at) VALUES (?, ?, ?, ?, ?)";
+	private static final String SEQUENCE_SQL = "INSERT INTO bench_inserts_seq"
+			+ " (id, user_book_id, loaner_id, loan_days, loan_status, created_at) VALUES (?, ?, ?, ?, ?, ?)";
+
+	@Param({"10", "100", "1000"})
+	private int rows;
+
+	private Connection plain;
+	private Connection rewritten;
+
+	@Setup(Level.Trial)
+	public void setup() throws SQLException {
+		plain = BenchDatabase.connect();
+
+		Properties rewrite = new Properties();
+		rewrite.setProperty("reWriteBatchedInserts", "true");
+		rewritten = BenchDatabase.connect(rewrite);
+
+		try (Statement st = plain.createStatement()) {
+			st.execute("DROP TABLE IF EXISTS bench_inserts_identity, bench_inserts_seq");
+			st.execute("DROP SEQUENCE IF EXISTS bench_inserts_seq_id");
+			st.execute("CREATE TABLE bench_inserts_identity (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,"
+					+ " user_book_id BIGINT NOT NULL, loaner_id BIGINT NOT NULL, loan_days INT, loan_status VARCHAR(30) NOT NULL, created_at TIMESTAMP)");
+			st.execute("CREATE TABLE bench_inserts_seq (id BIGINT PRIMARY KEY,"
+					+ " user_book_id BIGINT NOT NULL, loaner_id BIGINT NOT NULL, loan_days INT, loan_status VARCHAR(30) NOT NULL, created_at TIMESTAMP)");
+			st.execute("CREATE SEQUENCE bench_inserts_seq_id START WITH " + ALLOCATION_SIZE + " INCREMENT BY " + ALLOCATION_SIZE);
+		}
+		plain.setAutoCommit(false);
+		rewritten.setAutoCommit(false);
+	}
+
+	@TearDown(Level.Iteration)
+	public void truncate() throws SQLException {
+		try (Statement st = plain.createStatement()) {
+			st.execute("TRUNCATE bench_inserts_identity, bench_inserts_seq");
+		}
+		plain.commit();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		try (Statement st = plain.createStatement()) {
+			st.execute("DROP TABLE IF EXISTS bench_inserts_identity, bench_inserts_seq");
+			st.execute("DROP SEQUENCE IF EXISTS bench_inserts_seq_id");
+		}
+		plain.commit();
+		plain.close();
+		rewritten.close();
+	}
+
+	@Benchmark
+	public void identityPerRow() throws SQLException { // Former mapping: Hibernate cannot batch, it needs each generated key
+		try (PreparedStatement ps = plain.prepareStatement(IDENTITY_SQL, Statement.RETURN_GENERATED_KEYS)) {
+			Timestamp now = new Timestamp(System.currentTimeMillis());
+			for (int i = 0; i < rows; i++) {
+				ps.setLong(1, i);
+				ps.setLong(2, i);
+				ps.setInt(3, 14);
+				ps.setString(4, "REJECTED");
+				ps.setTimestamp(5, now);
+				ps.executeUpdate();
+				try (ResultSet keys = ps.getGeneratedKeys()) {
+					keys.next();
+				}
+			}
+		}
+		plain.commit();
+	}
+
+	@Benchmark
+	public void pooledSequenceBatch() throws SQLException {
+		this.insertBatched(plain);
+	}
+
+	@Benchmark
+	public void pooledSequenceBatchRewritten() throws SQLException { // Current config
+		this.insertBatched(rewritten);
+	}
+
+	private void insertBatched(Connection connection) throws SQLException {
+		try (PreparedStatement ps = connection.prepareStatement(SEQUENCE_SQL);
+				PreparedStatement nextval = connection.prepareStatement("SELECT nextval('bench_inserts_seq_id')")) {
+			Timestamp now = new Timestamp(System.currentTimeMillis());
+			long hi = 0;
+			for (int i = 0; i < rows; i++) {
+				if (i % ALLOCATION_SIZE == 0) { // Pooled optimizer: one round-trip per allocationSize ids
+					try (ResultSet rs = nextval.executeQuery()) {
+						rs.next();
+						hi = rs.getLong(1);
+					}
+				}
+				ps.setLong(1, hi - ALLOCATION_SIZE + 1 + (i % ALLOCATION_SIZE));
+				ps.setLong(2, i);
+				ps.setLong(3, i);
+				ps.setInt(4, 14);
+				ps.setString(5, "REJECTED");
+				ps.setTimestamp(6, now);
+				ps.addBatch();
+
+				if ((i + 1) % ALLOCATION_SIZE == 0) {
+					ps.executeBatch();
+				}
+			}
+			ps.executeBatch();
+		}
+		connection.commit();
+	}
+}
@@ -0,0 +1,132 @@
+package com.social.bookshare.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.social.bookshare.BenchDatabase;
+
+/**
+ * Catch-all LIKE search vs ranked full-text + trigram search on a generated 1M book catalog.
+ * Needs a PostgreSQL with pg_trgm, see BenchDatabase.
+ * Seeds its own bench_books table once (same columns and indexes as books in schema.sql).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BookSearchBenchmark {
+
+	private static final int CATALOG_SIZE = 1_000_000;
+	
+	private static final String LEGACY_SQL = "SELECT DISTINCT b.title, b.volume, b.class_nm, b.author, b.publisher, b.isbn13, b.image_url"
+			+ " FROM bench_books b"
+			+ " WHERE b.isbn13 = ?"
+			+ " OR ((LOWER(b.title) LIKE LOWER(CONCAT('%', ?::text, '%')))"
+			+ " AND (?::text IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', ?::text, '%'))))"
+			+ " ORDER BY b.title ASC";
+	
+	private static final String RANKED_SQL = "WITH q AS (SELECT plainto_tsquery('simple', ?) AS ts)"
+			+ " SELECT b.id, b.isbn13, b.title, b.volume, b.class_nm, b.author, b.publisher, b.image_url"
+			+ " FROM bench_books b, q"
+			+ " WHERE b.search_vector @@ q.ts OR ? <% b.title OR ? <% b.author OR ? <% b.publisher"
+			+ " ORDER BY ts_rank(b.search_vector, q.ts)"
+			+ " + GREATEST(word_similarity(?, b.title), word_similarity(?, b.author), word_similarity(?, b.publisher)) DESC, b.id ASC"
+			+ " LIMIT 20";
+	
+	@Param({"river", "gardn", "한강"})
+	private String keywords;
+	
+	private Connection connection;
+	private PreparedStatement legacy;
+	private PreparedStatement ranked;
+	
+	@Setup(Level.Trial)
+	public void setup() throws SQLException {
+		connection = BenchDatabase.connect();
+		this.seed();
+		
+		legacy = connection.prepareStatement(LEGACY_SQL);
+		ranked = connection.prepareStatement(RANKED_SQL);
+	}
+	
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		connection.close();
+	}
+	
+	@Benchmark
+	public void legacyLike(Blackhole bh) throws SQLException {
+		legacy.setString(1, "0000000000000"); // Never matches, as for a title-only search
+		legacy.setString(2, keywords);
+		legacy.setString(3, null);
+		legacy.setString(4, null);
+		this.drain(legacy, bh, 20); // Service trimmed to pageSize after reading everything
+	}
+	
+	@Benchmark
+	public void rankedSearch(Blackhole bh) throws SQLException {
+		for (int i = 1; i <= 7; i++) {
+			ranked.setString(i, keywords);
+		}
+		this.drain(ranked, bh, 20);
+	}
+	
+	private void drain(PreparedStatement statement, Blackhole bh, int keep) throws SQLException {
+		try (ResultSet rs = statement.executeQuery()) {
+			int rows = 0;
+			while (rs.next()) {
+				if (rows++ < keep) bh.consume(rs.getString("isbn13"));
+			}
+			bh.consume(rows);
+		}
+	}
+	
+	private void seed() throws SQLException {
+		try (Statement st = connection.createStatement()) {
+			st.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+			st.execute("CREATE TABLE IF NOT EXISTS bench_books ("
+					+ " id BIGSERIAL PRIMARY KEY, isbn13 VARCHAR(13) UNIQUE NOT NULL, title TEXT NOT NULL, volume SMALLINT NOT NULL,"
+					+ " class_nm VARCHAR(10) NOT NULL, author TEXT NOT NULL, publisher TEXT NOT NULL, image_url TEXT,"
+					+ " search_vector tsvector GENERATED ALWAYS AS ("
+					+ " setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||"
+					+ " setweight(to_tsvector('simple', coalesce(author, '')), 'B') ||"
+					+ " setweight(to_tsvector('simple', coalesce(publisher, '')), 'C')) STORED)");
+			
+			try (ResultSet rs = st.executeQuery("SELECT count(*) FROM bench_books")) {
+				rs.next();
+				if (rs.getLong(1) >= CATALOG_SIZE) return;
+			}
+			
+			st.execute("TRUNCATE bench_books");
+			st.execute("INSERT INTO bench_books (isbn13, title, volume, class_nm, author, publisher)"
+					+ " SELECT lpad(i::text, 13, '9'),"
+					+ " (ARRAY['river','garden','night','city','data','spring','history','novel','한강','바다','서울','소년'])[1 + i % 12]"
+					+ " || ' ' || (ARRAY['of','and','의','과'])[1 + (i / 12) % 4]"
+					+ " || ' ' || (ARRAY['stars','memory','time','light','바람','시간','기억'])[1 + (i / 48) % 7] || ' ' || i,"
+					+ " 1, 'LITERATURE',"
+					+ " 'author ' || (i % 50000), 'publisher ' || (i % 2000)"
+					+ " FROM generate_series(1, " + CATALOG_SIZE + ") AS i");
+			
+			st.execute("CREATE INDEX IF NOT EXISTS idx_bench_books_title_trgm_gin ON bench_books USING GIN (title gin_trgm_ops)");
+			st.execute("CREATE INDEX IF NOT EXISTS idx_bench_books_author_trgm_gin ON bench_books USING GIN (author gin_trgm_ops)");
+			st.execute("CREATE INDEX IF NOT EXISTS idx_bench_books_publisher_trgm_gin ON bench_books USING GIN (publisher gin_trgm_ops)");
+			st.execute("CREATE INDEX IF NOT EXISTS idx_bench_books_search_vector_gin ON bench_books USING GIN (search_vector)");
+			st.execute("ANALYZE bench_books");
+		}
+	}
+}
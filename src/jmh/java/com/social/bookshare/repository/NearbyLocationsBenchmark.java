@@ -0,0 +1,104 @@
+package com.social.bookshare.repository;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import com.social.bookshare.BenchDatabase;
+
+/**
+ * findNearbyLocations (3 km radius in Seoul) as the table grows: with only the geometry GIST index
+ * the geography cast cannot use it and every query scans the table; with the partial expression index
+ * idx_user_locations_geography_active the latency should stay flat.
+ * Needs a PostgreSQL with PostGIS, see BenchDatabase.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NearbyLocationsBenchmark {
+
+	private static final double DISTANCE = 3000; // meter
+
+	private static final String NEARBY_SQL = " l WHERE ST_DWithin(l.location::geography,"
+			+ " CAST(ST_SetSRID(ST_MakePoint(?, ?), 4326) AS geography), ?) AND l.is_active = true";
+
+	@Param({"10000", "100000", "1000000"})
+	private int locations;
+
+	private Connection connection;
+	private PreparedStatement geometryIndexOnly;
+	private PreparedStatement geographyIndex;
+
+	@Setup(Level.Trial)
+	public void setup() throws SQLException {
+		connection = BenchDatabase.connect();
+
+		try (Statement st = connection.createStatement()) {
+			st.execute("DROP TABLE IF EXISTS bench_nearby_geometry, bench_nearby_geography");
+			st.execute("CREATE TABLE bench_nearby_geometry (id BIGSERIAL PRIMARY KEY,"
+					+ " location geometry(Point, 4326) NOT NULL, is_active BOOLEAN NOT NULL DEFAULT (random() >= 0.1))"); // One in ten off
+			BenchDatabase.insertKoreanPoints(connection, "bench_nearby_geometry", locations);
+			st.execute("CREATE TABLE bench_nearby_geography AS TABLE bench_nearby_geometry");
+
+			// Former schema vs current schema (see schema.sql)
+			st.execute("CREATE INDEX ON bench_nearby_geometry USING GIST(location)");
+			st.execute("CREATE INDEX ON bench_nearby_geography USING GIST(location)");
+			st.execute("CREATE INDEX ON bench_nearby_geography USING GIST((location::geography)) WHERE is_active");
+			st.execute("ANALYZE bench_nearby_geometry");
+			st.execute("ANALYZE bench_nearby_geography");
+		}
+
+		geometryIndexOnly = connection.prepareStatement("SELECT l.id FROM bench_nearby_geometry" + NEARBY_SQL);
+		geographyIndex = connection.prepareStatement("SELECT l.id FROM bench_nearby_geography" + NEARBY_SQL);
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws SQLException {
+		geometryIndexOnly.close();
+		geographyIndex.close();
+		try (Statement st = connection.createStatement()) {
+			st.execute("DROP TABLE IF EXISTS bench_nearby_geometry, bench_nearby_geography");
+		}
+		connection.close();
+	}
+
+	@Benchmark
+	public int geometryIndexOnly() throws SQLException { // Former schema: sequential scan
+		return this.count(geometryIndexOnly);
+	}
+
+	@Benchmark
+	public int geographyExpressionIndex() throws SQLException {
+		return this.count(geographyIndex);
+	}
+
+	private int count(PreparedStatement ps) throws SQLException {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		ps.setDouble(1, 126.8 + random.nextDouble() * 0.4);
+		ps.setDouble(2, 37.4 + random.nextDouble() * 0.3);
+		ps.setDouble(3, DISTANCE);
+
+		int rows = 0;
+		try (ResultSet rs = ps.executeQuery()) {
+			while (rs.next()) {
+				rows++;
+			}
+		}
+		return rows;
+	}
+}
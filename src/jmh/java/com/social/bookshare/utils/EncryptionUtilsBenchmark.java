@@ -0,0 +1,95 @@
+package com.social.bookshare.utils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * AES-GCM throughput of the pooled single-buffer path vs the former per-call Cipher.getInstance path.
+ * Sizes: 32 = TOTP secret, 39 = Gemini API key, 164 = OpenAI project API key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class EncryptionUtilsBenchmark {
+
+	@Param({"32", "39", "164"})
+	private int plainLength;
+
+	private final SecureRandom secureRandom = new SecureRandom();
+
+	private EncryptionUtils encryptionUtils;
+	private SecretKeySpec systemKeySpec;
+	private String plainText;
+	private String encrypted;
+
+	@Setup
+	public void setup() throws Exception {
+		byte[] keyBytes = new byte[32];
+		secureRandom.nextBytes(keyBytes);
+
+		encryptionUtils = new EncryptionUtils(Base64.getEncoder().encodeToString(keyBytes), secureRandom, 1000, Duration.ofMinutes(10));
+		systemKeySpec = new SecretKeySpec(keyBytes, "AES");
+
+		plainText = "K".repeat(plainLength);
+		encrypted = encryptionUtils.encryptWithSystemKey(plainText);
+	}
+
+	@Benchmark
+	public String pooledEncrypt() throws Exception {
+		return encryptionUtils.encryptWithSystemKey(plainText);
+	}
+
+	@Benchmark
+	public String pooledDecrypt() throws Exception {
+		return encryptionUtils.decryptWithSystemKey(encrypted);
+	}
+
+	@Benchmark
+	public String legacyEncrypt() throws Exception {
+		byte[] iv = new byte[12];
+		secureRandom.nextBytes(iv);
+
+		Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		cipher.init(Cipher.ENCRYPT_MODE, systemKeySpec, new GCMParameterSpec(128, iv));
+		byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
+
+		ByteBuffer byteBuffer = ByteBuffer.allocate(iv.length + cipherText.length);
+		byteBuffer.put(iv);
+		byteBuffer.put(cipherText);
+
+		return Base64.getEncoder().encodeToString(byteBuffer.array());
+	}
+
+	@Benchmark
+	public String legacyDecrypt() throws Exception {
+		byte[] decoded = Base64.getDecoder().decode(encrypted);
+
+		ByteBuffer byteBuffer = ByteBuffer.wrap(decoded);
+		byte[] iv = new byte[12];
+		byteBuffer.get(iv);
+		byte[] cipherText = new byte[byteBuffer.remaining()];
+		byteBuffer.get(cipherText);
+
+		Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		cipher.init(Cipher.DECRYPT_MODE, systemKeySpec, new GCMParameterSpec(128, iv));
+
+		return new String(cipher.doFinal(cipherText), StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,85 @@
+package com.social.bookshare.utils;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Ranking library candidates around a Seoul user: the former per-library path (parse both coordinate strings,
+ * calculateDistance each) vs parse once into arrays + calculateDistances, and the batch pass alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class GeometryUtilsBenchmark {
+
+	@Param({"20", "200", "1000"})
+	private int libraries;
+
+	private GeometryUtils geometryUtils;
+	private double userLat;
+	private double userLon;
+	private String[] latitudes;
+	private String[] longitudes;
+	private double[] lats;
+	private double[] lons;
+	private double[] distances;
+
+	@Setup
+	public void setup() {
+		geometryUtils = new GeometryUtils(new GeometryFactory(new PrecisionModel(), 4326));
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		userLat = 37.5665;
+		userLon = 126.9780;
+
+		latitudes = new String[libraries];
+		longitudes = new String[libraries];
+		lats = new double[libraries];
+		lons = new double[libraries];
+		distances = new double[libraries];
+		for (int i = 0; i < libraries; i++) {
+			latitudes[i] = String.valueOf(33.0 + random.nextDouble() * 5.5); // As data4library sends them
+			longitudes[i] = String.valueOf(126.0 + random.nextDouble() * 3.5);
+			lats[i] = Double.parseDouble(latitudes[i]);
+			lons[i] = Double.parseDouble(longitudes[i]);
+		}
+	}
+
+	@Benchmark
+	public double[] perLibrary() { // Former path
+		for (int i = 0; i < libraries; i++) {
+			double lat = Double.parseDouble(latitudes[i]);
+			double lon = Double.parseDouble(longitudes[i]);
+			distances[i] = geometryUtils.calculateDistance(userLat, userLon, lat, lon);
+		}
+		return distances;
+	}
+
+	@Benchmark
+	public double[] parseThenBatch() { // Current path
+		double[] parsedLats = new double[libraries];
+		double[] parsedLons = new double[libraries];
+		for (int i = 0; i < libraries; i++) {
+			parsedLats[i] = Double.parseDouble(latitudes[i]);
+			parsedLons[i] = Double.parseDouble(longitudes[i]);
+		}
+		geometryUtils.calculateDistances(userLat, userLon, parsedLats, parsedLons, distances);
+		return distances;
+	}
+
+	@Benchmark
+	public double[] batchOnly() { // Coordinates already parsed (e.g. a library registry)
+		geometryUtils.calculateDistances(userLat, userLon, lats, lons, distances);
+		return distances;
+	}
+}
@@ -0,0 +1,59 @@
+package com.social.bookshare.client;
+
+import java.time.Duration;
+
+/**
+ * Consecutive-failure circuit breaker.
+ * CLOSED: all calls pass. OPEN: calls are rejected until openDuration passes.
+ * HALF_OPEN: a single trial call decides between CLOSED and OPEN again.
+ */
+public class CircuitBreaker {
+
+	public enum State { CLOSED, OPEN, HALF_OPEN }
+	
+	private final int failureThreshold;
+	private final long openNanos;
+	
+	private State state = State.CLOSED;
+	private int failures;
+	private long openedAt;
+	private boolean trialInFlight;
+	
+	public CircuitBreaker(int failureThreshold, Duration openDuration) {
+		this.failureThreshold = failureThreshold;
+		this.openNanos = openDuration.toNanos();
+	}
+	
+	public synchronized boolean tryAcquire() {
+		if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+			state = State.HALF_OPEN;
+			trialInFlight = false;
+		}
+		
+		switch (state) {
+			case CLOSED: return true;
+			case HALF_OPEN:
+				if (trialInFlight) return false;
+				trialInFlight = true;
+				return true;
+			default: return false;
+		}
+	}
+	
+	public synchronized void onSuccess() {
+		state = State.CLOSED;
+		failures = 0;
+		trialInFlight = false;
+	}
+	
+	public synchronized void onFailure() {
+		if (state == State.HALF_OPEN || ++failures >= failureThreshold) {
+			state = State.OPEN;
+			openedAt = System.nanoTime();
+			failures = 0;
+			trialInFlight = false;
+		}
+	}
+	
+	public synchronized State getState() { return state; }
+}
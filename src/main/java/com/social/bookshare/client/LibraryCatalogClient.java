@@ -0,0 +1,18 @@
+package com.social.bookshare.client;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import com.social.bookshare.dto.response.BookSearchResult;
+import com.social.bookshare.dto.response.LibraryByBookResponse;
+
+/**
+ * Public library catalog (data4library.kr) lookups.
+ * Calls never block the caller; failures complete the future exceptionally.
+ */
+public interface LibraryCatalogClient {
+
+	public CompletableFuture<List<BookSearchResult>> searchBooks(String isbn13, String title, String author, String publisher, String keywords, int pageSize);
+	public CompletableFuture<List<LibraryByBookResponse.LibInfo>> findLibrariesByIsbn(String isbn13, int pageSize);
+	public CompletableFuture<List<LibraryByBookResponse.LibInfo>> findLibraries(int pageNo, int pageSize); // All libraries, paged
+}
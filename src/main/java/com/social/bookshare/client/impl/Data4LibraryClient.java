@@ -0,0 +1,234 @@
+package com.social.bookshare.client.impl;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.social.bookshare.client.CircuitBreaker;
+import com.social.bookshare.client.LibraryCatalogClient;
+import com.social.bookshare.dto.response.BookSearchResponse;
+import com.social.bookshare.dto.response.BookSearchResult;
+import com.social.bookshare.dto.response.LibraryByBookResponse;
+
+/**
+ * data4library.kr client. Blocking RestClient calls run on virtual threads,
+ * over one pooled keep-alive JDK HttpClient.
+ * I/O errors, 5xx and 429 are retried with full jitter backoff (429 waits at least its Retry-After).
+ * Other 4xx fail at once and don't trip the breaker; unreadable or unmappable bodies fail at once and do.
+ */
+@Component
+public class Data4LibraryClient implements LibraryCatalogClient {
+
+	private static final long MAX_RETRY_AFTER_MILLIS = 5_000; // A longer quota wait fails the call instead of holding it
+	
+	private final ExecutorService executor;
+	private final RestClient restClient;
+	private final CircuitBreaker circuitBreaker;
+	private final String apiUrl;
+	private final String authKey;
+	private final int maxAttempts;
+	private final long retryBackoffMillis;
+	
+	public Data4LibraryClient(@Qualifier("virtualThreadExecutor") ExecutorService executor,
+			@Value("${data4library.api.url}") String apiUrl,
+			@Value("${data4library.api.key}") String authKey,
+			@Value("${data4library.client.connectTimeout:2s}") Duration connectTimeout,
+			@Value("${data4library.client.readTimeout:3s}") Duration readTimeout,
+			@Value("${data4library.client.maxAttempts:3}") int maxAttempts,
+			@Value("${data4library.client.retryBackoff:200ms}") Duration retryBackoff,
+			@Value("${data4library.client.failureThreshold:5}") int failureThreshold,
+			@Value("${data4library.client.openDuration:30s}") Duration openDuration) {
+		this.executor = executor;
+		this.apiUrl = apiUrl;
+		this.authKey = authKey;
+		this.maxAttempts = Math.max(1, maxAttempts);
+		this.retryBackoffMillis = retryBackoff.toMillis();
+		this.circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+		
+		HttpClient httpClient = HttpClient.newBuilder() // Connections are pooled and kept alive per host
+				.connectTimeout(connectTimeout)
+				.version(HttpClient.Version.HTTP_1_1)
+				.build();
+		
+		JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+		requestFactory.setReadTimeout(readTimeout);
+		
+		this.restClient = RestClient.builder()
+				.requestFactory(requestFactory)
+				.build();
+	}
+	
+	@Override
+	public CompletableFuture<List<BookSearchResult>> searchBooks(String isbn13, String title, String author, String publisher, String keywords, int pageSize) {
+		URI uri = UriComponentsBuilder.fromUriString(apiUrl + "/srchBooks")
+                .queryParam("authKey", authKey)
+                .queryParamIfPresent("title", Optional.ofNullable(title))
+                .queryParamIfPresent("author", Optional.ofNullable(author))
+                .queryParamIfPresent("isbn13", Optional.ofNullable(isbn13))
+                .queryParamIfPresent("keyword", Optional.ofNullable(keywords)) // Trust conversion on client
+                .queryParamIfPresent("publisher", Optional.ofNullable(publisher))
+                .queryParam("pageSize", pageSize)
+                .queryParam("format", "json")
+                .encode()
+                .build().toUri();
+		
+		return this.submit(() -> {
+			BookSearchResponse response = restClient.get().uri(uri).retrieve().body(BookSearchResponse.class);
+			
+			if (response == null || response.getResponse() == null || response.getResponse().getDocs() == null) {
+	            return Collections.<BookSearchResult>emptyList();
+	        }
+
+	        return response.getResponse().getDocs().stream()
+	                .<BookSearchResult>map(item -> {
+	                    BookSearchResponse.DocInfo doc = item.getDoc();
+	                    return BookSearchResult.builder()
+	                            .title(doc.getBookName())
+	                            .volume(doc.getVolume())
+	                            .className(doc.getClassName())
+	                            .author(doc.getAuthors())
+	                            .publisher(doc.getPublisher())
+	                            .isbn13(doc.getIsbn13())
+	                            .image(doc.getBookImageURL())
+	                            .fromLibrary(true)
+	                            .build();
+	                }).collect(Collectors.toList());
+		});
+	}
+	
+	@Override
+	public CompletableFuture<List<LibraryByBookResponse.LibInfo>> findLibrariesByIsbn(String isbn13, int pageSize) {
+		URI uri = UriComponentsBuilder.fromUriString(apiUrl + "/libSrchByBook")
+                .queryParam("authKey", authKey)
+                .queryParam("isbn13", isbn13)
+                .queryParam("pageSize", pageSize)
+                .queryParam("format", "json")
+                .encode()
+                .build().toUri();
+		
+		return this.submit(() -> {
+			LibraryByBookResponse response = restClient.get().uri(uri).retrieve().body(LibraryByBookResponse.class);
+			
+			if (response == null || response.getResponse() == null || response.getResponse().getLibs() == null) {
+	            return Collections.<LibraryByBookResponse.LibInfo>emptyList();
+	        }
+
+	        return response.getResponse().getLibs().stream()
+	                .map(LibraryByBookResponse.Lib::getLib)
+	                .collect(Collectors.toList());
+		});
+	}
+	
+	@Override
+	public CompletableFuture<List<LibraryByBookResponse.LibInfo>> findLibraries(int pageNo, int pageSize) {
+		URI uri = UriComponentsBuilder.fromUriString(apiUrl + "/libSrch")
+                .queryParam("authKey", authKey)
+                .queryParam("pageNo", pageNo)
+                .queryParam("pageSize", pageSize)
+                .queryParam("format", "json")
+                .encode()
+                .build().toUri();
+		
+		return this.submit(() -> {
+			LibraryByBookResponse response = restClient.get().uri(uri).retrieve().body(LibraryByBookResponse.class); // Same shape
+			
+			if (response == null || response.getResponse() == null || response.getResponse().getLibs() == null) {
+	            return Collections.<LibraryByBookResponse.LibInfo>emptyList();
+	        }
+
+	        return response.getResponse().getLibs().stream()
+	                .map(LibraryByBookResponse.Lib::getLib)
+	                .collect(Collectors.toList());
+		});
+	}
+	
+	public CircuitBreaker.State getCircuitState() { return circuitBreaker.getState(); }
+	
+	private <T> CompletableFuture<T> submit(Supplier<T> call) {
+		return CompletableFuture.supplyAsync(() -> this.callWithRetry(call), executor);
+	}
+	
+	private <T> T callWithRetry(Supplier<T> call) {
+		if (!circuitBreaker.tryAcquire()) {
+			throw new IllegalStateException("data4library: circuit open");
+		}
+		
+		boolean recorded = false;
+		try {
+			for (int attempt = 1; ; attempt++) {
+				try {
+					T result = call.get();
+					recorded = true;
+					circuitBreaker.onSuccess();
+					return result;
+				} catch (ResourceAccessException | HttpServerErrorException | HttpClientErrorException.TooManyRequests e) { // Timeouts, I/O, 5xx, quota
+					long retryAfterMillis = this.retryAfterMillis(e);
+					if (attempt >= maxAttempts || retryAfterMillis > MAX_RETRY_AFTER_MILLIS) {
+						recorded = true;
+						circuitBreaker.onFailure();
+						throw e;
+					}
+					this.backoff(attempt, retryAfterMillis);
+				} catch (HttpClientErrorException e) {
+					recorded = true;
+					circuitBreaker.onSuccess(); // Upstream answered; the request itself is at fault
+					throw e;
+				} catch (RuntimeException e) {
+					recorded = true;
+					circuitBreaker.onFailure(); // Body not readable or not mappable: upstream is not answering properly
+					throw e;
+				}
+			}
+		} finally {
+			if (!recorded) {
+				circuitBreaker.onFailure(); // Interrupted in backoff, or an Error: a HALF_OPEN trial must not stay in flight
+			}
+		}
+	}
+	
+	// Retry-After in seconds (the HTTP-date form is not used upstream); 0 if absent
+	private long retryAfterMillis(RuntimeException e) {
+		if (!(e instanceof HttpClientErrorException.TooManyRequests tooManyRequests) || tooManyRequests.getResponseHeaders() == null) {
+			return 0;
+		}
+		String retryAfter = tooManyRequests.getResponseHeaders().getFirst(HttpHeaders.RETRY_AFTER);
+		try {
+			return (retryAfter == null) ? 0 : Math.max(0, Long.parseLong(retryAfter.strip()) * 1000);
+		} catch (NumberFormatException ignored) {
+			return 0;
+		}
+	}
+	
+	// Full jitter: random in [0, base * 2^(attempt-1)), but no sooner than minMillis
+	private void backoff(int attempt, long minMillis) {
+		long bound = retryBackoffMillis << Math.min(attempt - 1, 10);
+		long delay = Math.max(minMillis, (bound > 0) ? ThreadLocalRandom.current().nextLong(bound) : 0);
+		if (delay <= 0) return;
+		
+		try {
+			Thread.sleep(delay);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ResourceAccessException("data4library: interrupted while retrying");
+		}
+	}
+}
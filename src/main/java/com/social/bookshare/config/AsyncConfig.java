@@ -0,0 +1,17 @@
+package com.social.bookshare.config;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class AsyncConfig {
+
+	// Blocking I/O fan-out and background refreshes (one virtual thread per task)
+	@Bean(destroyMethod = "close")
+	ExecutorService virtualThreadExecutor() {
+		return Executors.newVirtualThreadPerTaskExecutor();
+	}
+}
@@ -0,0 +1,11 @@
+package com.social.bookshare.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+	// Activate @Scheduled (background index rebuilds)
+}
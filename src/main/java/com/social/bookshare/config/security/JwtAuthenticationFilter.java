@@ -26,10 +26,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 			throws ServletException, IOException {
 
 		String token = this.resolveToken(request);
+		// Verified once (or served from the verified token cache)
+		Authentication auth = (token != null) ? jwtTokenProvider.authenticate(token) : null;
 		
 		// If token is valid, store authentication info into SecurityContext
-        if (token != null && jwtTokenProvider.validateToken(token)) {
-            Authentication auth = jwtTokenProvider.getAuthentication(token);
+        if (auth != null) {
             SecurityContextHolder.getContext().setAuthentication(auth);
         }
         
@@ -2,8 +2,12 @@ package com.social.bookshare.config.security;
 
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -11,22 +15,38 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.annotation.PostConstruct;
 
 @Component
 public class JwtTokenProvider {
 	
 	private final UserDetailsService userDetailsService;
+	private final RedissonClient redissonClient;
+	private final MeterRegistry meterRegistry;
+	private final VerifiedTokenCache tokenCache;
 	
 	private static final String AUDIENCE_AUTHENTICATION = "AUTHENTICATION";
 	private static final String AUDIENCE_TFA_VERIFICATION = "TFA_VERIFICATION";
+	private static final String REVOKED_BEFORE_PREFIX = "ACCESS_TOKEN:REVOKED_BEFORE:";
+	private static final String ISSUED_AT_MILLIS_CLAIM = "iatMs"; // iat has second precision
+	private static final long NO_MARK = 0L;
 	
-	public JwtTokenProvider(UserDetailsService userDetailsService) {
+	public JwtTokenProvider(UserDetailsService userDetailsService, RedissonClient redissonClient, 
+			MeterRegistry meterRegistry, VerifiedTokenCache tokenCache) {
 		this.userDetailsService = userDetailsService;
+		this.redissonClient = redissonClient;
+		this.meterRegistry = meterRegistry;
+		this.tokenCache = tokenCache;
 	}
 	
 	@Value("${jwt.secret}")
@@ -41,11 +61,40 @@ public class JwtTokenProvider {
 	@Value("${jwt.preAuthTokenValidTime}")
 	private long preAuthTokenValidTime;
 	
+	// Build principal from verified claims instead of loading the user per request
+	@Value("${jwt.statelessPrincipal:true}")
+	private boolean statelessPrincipal;
+	
+	// Reject access tokens issued up to a revocation mark kept in Redis (required by statelessPrincipal)
+	@Value("${jwt.revocationCheck:true}")
+	private boolean revocationCheck;
+	
+	// How long a mark read from Redis is trusted per instance; other instances see a new mark within this
+	@Value("${jwt.revocationCacheTtl:5s}")
+	private Duration revocationCacheTtl;
+	
 	private Key key;
+	private Cache<Long, Long> revocationMarks; // userId -> mark (epoch millis), NO_MARK if none
+	private JwtParser parser;
+	private Timer validTimer;
+	private Timer invalidTimer;
 
     @PostConstruct
     protected void init() {
+    	// A stateless principal never reloads the user, so revocation marks are the only way to log tokens out
+    	if (statelessPrincipal && !revocationCheck) {
+    		throw new IllegalStateException("jwt.statelessPrincipal requires jwt.revocationCheck");
+    	}
+    	this.revocationMarks = Caffeine.newBuilder()
+    			.maximumSize(100_000)
+    			.expireAfterWrite(revocationCacheTtl)
+    			.build();
     	this.key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+    	// Parser is immutable and thread-safe, so one instance serves all requests
+    	this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+    	
+    	this.validTimer = Timer.builder("jwt.verification").tag("result", "valid").register(meterRegistry);
+    	this.invalidTimer = Timer.builder("jwt.verification").tag("result", "invalid").register(meterRegistry);
     }
     
     public String createAccessToken(Long userId, String email, String role) {
@@ -60,48 +109,106 @@ public class JwtTokenProvider {
     	return this.createToken(userId, email, null, preAuthTokenValidTime, AUDIENCE_TFA_VERIFICATION);
     }
     
-    public Long getUserId(String token) {
-    	return Jwts.parserBuilder()
-    			.setSigningKey(key)
-    			.build()
-    			.parseClaimsJws(token)
-    			.getBody()
-                .get("id", Long.class);
+    /** Verify signature, expiry and audience of an access token in one pass. Returns null if invalid. */
+    public Claims verifyAccessToken(String token) {
+    	Claims claims = this.verifyToken(token, AUDIENCE_AUTHENTICATION);
+    	
+    	if (claims != null && revocationCheck && this.isRevoked(claims)) {
+    		return null;
+    	}
+    	return claims;
     }
     
-    public Authentication getAuthentication(String token) {
-    	String email = Jwts.parserBuilder()
-    			.setSigningKey(key)
-    			.build()
-    			.parseClaimsJws(token)
-    			.getBody()
-    			.getSubject();
-    	
-    	UserDetails userDetails = userDetailsService.loadUserByUsername(email);
-    	
-    	return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    public Claims verifyRefreshToken(String token) {
+    	return this.verifyToken(token, null);
     }
     
-    public boolean validateToken(String token) {
-        return this.validateToken(token, AUDIENCE_AUTHENTICATION);
+    public Claims verifyPreAuthToken(String token) {
+    	return this.verifyToken(token, AUDIENCE_TFA_VERIFICATION);
     }
     
-    public boolean validateRefreshToken(String token) {
-    	return this.validateToken(token, null);
+    public Long getUserId(Claims claims) {
+    	return claims.get("id", Long.class);
     }
-
-    public boolean validatePreAuthToken(String token) {
-        return this.validateToken(token, AUDIENCE_TFA_VERIFICATION);
+    
+    /** Resolve authentication of an access token, skipping verification for tokens already verified. Returns null if invalid. */
+    public Authentication authenticate(String token) {
+    	UserDetails userDetails;
+    	VerifiedTokenCache.VerifiedToken cached = tokenCache.get(token);
+    	
+    	if (cached != null) {
+    		if (revocationCheck && this.isRevoked(cached.getClaims())) {
+    			return null;
+    		}
+    		userDetails = cached.getPrincipal();
+    	} else {
+    		Claims claims = this.verifyAccessToken(token);
+    		
+    		if (claims == null) {
+    			return null;
+    		}
+    		PrincipalDetails principal = this.principalFromClaims(claims);
+    		
+    		if (principal != null) {
+    			tokenCache.put(token, claims, principal);
+    			userDetails = principal;
+    		} else {
+    			// Not cached: a DB-loaded user (password hash, current role) must be reloaded per request
+    			userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+    		}
+    	}
+    	
+    	// Fresh token object per request, as downstream may set details on it
+    	return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
     }
     
-    private boolean validateToken(String token, String expectedAudience) {
+    /** Invalidate all access tokens of the user issued up to now (kept as long as an access token lives) */
+    public void revokeAccessTokens(Long userId) {
+    	long revokedBefore = System.currentTimeMillis();
+    	
+    	RBucket<Long> revokedBucket = redissonClient.getBucket(REVOKED_BEFORE_PREFIX + userId);
+    	revokedBucket.set(revokedBefore, Duration.ofMillis(accessTokenValidTime));
+    	revocationMarks.put(userId, revokedBefore); // Effective here at once, elsewhere within revocationCacheTtl
+    }
+    
+    private Claims verifyToken(String token, String expectedAudience) {
+    	long startNanos = System.nanoTime();
     	try {
-    		Claims claims = Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+    		Claims claims = parser.parseClaimsJws(token).getBody();
     		// If expectedAudience is null, skip the audience claim check. Else, check for a match.
-    		return expectedAudience == null || expectedAudience.equals(claims.getAudience());
+    		if (expectedAudience == null || expectedAudience.equals(claims.getAudience())) {
+    			validTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    			return claims;
+    		}
     	} catch (Exception e) {
+    		// Fall through as invalid
+    	}
+    	invalidTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    	return null;
+    }
+    
+    /** Principal built from the claims alone, or null if the user has to be loaded */
+    private PrincipalDetails principalFromClaims(Claims claims) {
+    	String role = claims.get("role", String.class);
+    	
+    	if (statelessPrincipal && role != null) {
+    		return new PrincipalDetails(this.getUserId(claims), claims.getSubject(), role);
+    	}
+    	return null;
+    }
+    
+    private boolean isRevoked(Claims claims) {
+    	long revokedBefore = revocationMarks.get(this.getUserId(claims), userId -> {
+    		Long mark = redissonClient.<Long>getBucket(REVOKED_BEFORE_PREFIX + userId).get();
+    		return (mark != null) ? mark : NO_MARK;
+    	});
+    	if (revokedBefore == NO_MARK) {
     		return false;
     	}
+    	Long issuedAtMillis = claims.get(ISSUED_AT_MILLIS_CLAIM, Long.class);
+    	// Tokens without the claim fall back to iat, truncated down, so the same second is revoked too
+    	long issuedAt = (issuedAtMillis != null) ? issuedAtMillis : claims.getIssuedAt().getTime();
+    	return issuedAt <= revokedBefore;
     }
     
     private String createToken(Long userId, String userEmail, String role, long tokenValidTime, String audience) {
@@ -114,6 +221,7 @@ public class JwtTokenProvider {
         }
     	
     	Date now = new Date();
+    	claims.put(ISSUED_AT_MILLIS_CLAIM, now.getTime());
     	return Jwts.builder()
                 .setClaims(claims)
                 .setIssuedAt(now)
@@ -19,6 +19,17 @@ public class PrincipalDetails extends User {
         this.id = user.getId();
     }
 	
+	// Stateless principal from verified token claims (no credential held)
+	public PrincipalDetails(Long id, String email, String role) {
+		super(
+			email, 
+			"", 
+			AuthorityUtils.createAuthorityList("ROLE_" + role)
+		);
+		
+		this.id = id;
+	}
+	
 	public Long getId() {
         return id;
     }
@@ -0,0 +1,100 @@
+package com.social.bookshare.config.security;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/** In-process cache of access tokens already verified, keyed by token digest and expired at the token's exp */
+@Component
+public class VerifiedTokenCache {
+
+	private final Cache<String, VerifiedToken> cache;
+	private final boolean enabled;
+	
+	public VerifiedTokenCache(
+			@Value("${jwt.cache.enabled:true}") boolean enabled,
+			@Value("${jwt.cache.maximumSize:10000}") long maximumSize,
+			MeterRegistry meterRegistry) {
+		this.enabled = enabled;
+		this.cache = Caffeine.newBuilder()
+				.maximumSize(maximumSize)
+				.expireAfter(new TokenExpiry())
+				.recordStats()
+				.build();
+		
+		// cache.gets{result=hit|miss}, cache.evictions, cache.size
+		CaffeineCacheMetrics.monitor(meterRegistry, cache, "jwtVerifiedTokens");
+	}
+	
+	public VerifiedToken get(String token) {
+		if (!enabled) return null;
+		
+		return cache.getIfPresent(digest(token));
+	}
+	
+	public void put(String token, Claims claims, PrincipalDetails principal) {
+		if (!enabled || claims.getExpiration() == null) return;
+		
+		cache.put(digest(token), new VerifiedToken(claims, principal));
+	}
+	
+	private static String digest(String token) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-256");
+			byte[] hashBytes = digest.digest(token.getBytes(StandardCharsets.US_ASCII));
+			
+			return Base64.getEncoder().withoutPadding().encodeToString(hashBytes);
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("Hash algorithm not found", e);
+		}
+	}
+	
+	public static class VerifiedToken {
+		
+		private final Claims claims;
+		private final PrincipalDetails principal; // Built from claims, no password hash or DB state
+		private final long expiresAt; // epoch millis
+		
+		private VerifiedToken(Claims claims, PrincipalDetails principal) {
+			this.claims = claims;
+			this.principal = principal;
+			this.expiresAt = claims.getExpiration().getTime();
+		}
+		
+		public Claims getClaims() { return claims; }
+		public PrincipalDetails getPrincipal() { return principal; }
+		public long getExpiresAt() { return expiresAt; }
+	}
+	
+	private static class TokenExpiry implements Expiry<String, VerifiedToken> {
+		
+		@Override
+		public long expireAfterCreate(String key, VerifiedToken value, long currentTime) {
+			long remainingMillis = value.getExpiresAt() - System.currentTimeMillis();
+			return TimeUnit.MILLISECONDS.toNanos(Math.max(0, remainingMillis));
+		}
+		
+		@Override
+		public long expireAfterUpdate(String key, VerifiedToken value, long currentTime, long currentDuration) {
+			return this.expireAfterCreate(key, value, currentTime);
+		}
+		
+		@Override
+		public long expireAfterRead(String key, VerifiedToken value, long currentTime, long currentDuration) {
+			return currentDuration;
+		}
+	}
+}
@@ -1,20 +1,35 @@
 package com.social.bookshare.controller.api;
 
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import com.social.bookshare.dto.request.BulkIsbnRequest;
 import com.social.bookshare.dto.response.BookLocationResponse;
+import com.social.bookshare.dto.response.BookSearchPage;
 import com.social.bookshare.dto.response.BookSearchResult;
+import com.social.bookshare.dto.response.IsbnLookupResult;
+import com.social.bookshare.index.BookSuggestions;
+import com.social.bookshare.index.SuggestionIndex;
+import com.social.bookshare.service.BookLookupService;
+import com.social.bookshare.service.BookSearchService;
 import com.social.bookshare.service.BookService;
 
 import jakarta.validation.constraints.NotBlank;
@@ -23,10 +38,27 @@ import jakarta.validation.constraints.NotBlank;
 @RequestMapping("/api/v1/books")
 public class BookController {
 
+	private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+	
 	private final BookService bookService;
+	private final BookSearchService bookSearchService;
+	private final BookSuggestions bookSuggestions;
+	private final BookLookupService bookLookupService;
+	private final ExecutorService executor;
+	private final int maxBulkIsbns;
+	private final Duration bulkTimeout;
 	
-	public BookController(BookService bookService) {
+	public BookController(BookService bookService, BookSearchService bookSearchService, BookSuggestions bookSuggestions, 
+			BookLookupService bookLookupService, @Qualifier("virtualThreadExecutor") ExecutorService executor,
+			@Value("${book.bulk.maxIsbns:500}") int maxBulkIsbns,
+			@Value("${book.bulk.timeout:2m}") Duration bulkTimeout) {
 		this.bookService = bookService;
+		this.bookSearchService = bookSearchService;
+		this.bookSuggestions = bookSuggestions;
+		this.bookLookupService = bookLookupService;
+		this.executor = executor;
+		this.maxBulkIsbns = maxBulkIsbns;
+		this.bulkTimeout = bulkTimeout;
 	}
 	
 	@GetMapping("/search")
@@ -38,42 +70,86 @@ public class BookController {
             @RequestParam(required = false) String author,
             @RequestParam(required = false) String publisher,
             @RequestParam(required = false) String keywords,
+            @RequestParam(required = false) String cursor, // X-Next-Cursor of the previous page
             @RequestParam(value = "page_size", defaultValue = "20") int pageSize) {
 		
 		if (Stream.of(isbn13, title, author, publisher, keywords).allMatch(s -> s == null || s.isBlank())) {
             return ResponseEntity.badRequest().build();
         }
 
-		// 1. Search libraries (data4library.kr)
-        List<BookSearchResult> apiResults = bookService.searchLibraryBooks(isbn13, title, author, publisher, keywords, pageSize);
-        
-        if (apiResults.size() >= pageSize) {
-        	return ResponseEntity.ok(apiResults);
-        }
+		if (pageSize < 1 || pageSize > 100) {
+			return ResponseEntity.badRequest().build();
+		}
+		
+		BookSearchPage page;
+		try {
+			page = bookSearchService.searchBooks(isbn13, title, volume, className, author, publisher, keywords, cursor, pageSize);
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		}
         
-        // If results less than pageSize...
-    	Map<String, BookSearchResult> integratedMap = new HashMap<>(); // Collector for except duplicates
-    	
-    	for (BookSearchResult apiItem : apiResults) {
-            integratedMap.put(apiItem.getIsbn13(), apiItem);
-        }
-    	
-    	// 2. Search private books (DB)
-    	List<BookSearchResult> privateResults = bookService.searchPrivateBooks(isbn13, title, volume, className, author, publisher, false);
-    	
-    	for (BookSearchResult privateItem : privateResults) {
-    		if (integratedMap.size() >= pageSize) { break; }
-        	
-            if (!integratedMap.containsKey(privateItem.getIsbn13())) {
-                integratedMap.put(privateItem.getIsbn13(), privateItem);
-            }
+        if (page.getResults().isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
         
-        if (integratedMap.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        } else {
-        	return ResponseEntity.ok(new ArrayList<>(integratedMap.values()));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+        	response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
         }
+        return response.body(page.getResults());
+	}
+	
+	@PostMapping(value = "/bulk", produces = MediaType.APPLICATION_NDJSON_VALUE)
+	public ResponseEntity<ResponseBodyEmitter> bulkLookup(@RequestBody BulkIsbnRequest request) {
+		List<String> isbn13s = request.getIsbn13s();
+		if (isbn13s == null || isbn13s.isEmpty() || isbn13s.size() > maxBulkIsbns) {
+			return ResponseEntity.badRequest().build();
+		}
+		
+		// One JSON line per ISBN, in resolution order
+		ResponseBodyEmitter emitter = new ResponseBodyEmitter(bulkTimeout.toMillis());
+		AtomicBoolean cancelled = new AtomicBoolean(); // Client gone or timed out: stop calling upstream for it
+		emitter.onCompletion(() -> cancelled.set(true));
+		emitter.onTimeout(() -> cancelled.set(true));
+		emitter.onError(e -> cancelled.set(true));
+		executor.execute(() -> {
+			try {
+				bookLookupService.lookup(isbn13s, result -> {
+					try {
+						this.sendLine(emitter, result);
+					} catch (UncheckedIOException e) {
+						cancelled.set(true); // A failed write may precede the container's error callback
+						throw e;
+					}
+				}, cancelled::get);
+				emitter.complete();
+			} catch (RuntimeException e) {
+				emitter.completeWithError(e);
+			}
+		});
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+	}
+	
+	@GetMapping("/suggest")
+	public ResponseEntity<List<String>> suggest(
+			@RequestParam @NotBlank String q,
+			@RequestParam(defaultValue = "10") int limit) {
+		
+		if (limit < 1 || limit > SuggestionIndex.MAX_K) {
+			return ResponseEntity.badRequest().build();
+		}
+		return ResponseEntity.ok(bookSuggestions.suggest(q, limit));
+	}
+	
+	private void sendLine(ResponseBodyEmitter emitter, IsbnLookupResult result) {
+		synchronized (emitter) { // Lines are sent from several threads
+			try {
+				emitter.send(result, MediaType.APPLICATION_JSON);
+				emitter.send("\n", MediaType.TEXT_PLAIN);
+			} catch (IOException e) {
+				throw new UncheckedIOException(e); // Client gone
+			}
+		}
 	}
 	
 	@GetMapping("/{isbn13}/locations")
@@ -82,9 +158,10 @@ public class BookController {
             @RequestParam(value = "user_lat") double userLat,
             @RequestParam(value = "user_lon") double userLon,
             @RequestParam(value = "ref_dist", defaultValue = "1.0") double refDist,
+            @RequestParam(value = "radius", required = false) Double radius, // km
             @RequestParam(value = "page_size", defaultValue = "5") int pageSize) {
         try {
-            return ResponseEntity.ok(bookService.getIntegratedBookLocations(isbn13, userLat, userLon, refDist, pageSize));
+            return ResponseEntity.ok(bookService.getIntegratedBookLocations(isbn13, userLat, userLon, refDist, radius, pageSize));
         } catch (IllegalArgumentException e) {
         	return ResponseEntity.badRequest().build();
         } catch (Exception e) {
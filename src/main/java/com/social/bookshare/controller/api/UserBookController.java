@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -19,9 +20,12 @@ import org.springframework.web.bind.annotation.RestController;
 
 import com.social.bookshare.config.security.PrincipalDetails;
 import com.social.bookshare.dto.request.BookRegisterRequest;
+import com.social.bookshare.dto.request.ShelfImportItem;
 import com.social.bookshare.dto.request.UserBookUpdateRequest;
 import com.social.bookshare.dto.response.BookSearchResult;
+import com.social.bookshare.dto.response.ShelfImportProgress;
 import com.social.bookshare.dto.response.UserBookResponse;
+import com.social.bookshare.service.ShelfImportService;
 import com.social.bookshare.service.UserBookService;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -32,9 +36,11 @@ import jakarta.validation.constraints.NotBlank;
 public class UserBookController {
 	
 	private final UserBookService userBookService;
+	private final ShelfImportService shelfImportService;
 	
-	public UserBookController(UserBookService userBookService) {
+	public UserBookController(UserBookService userBookService, ShelfImportService shelfImportService) {
 		this.userBookService = userBookService;
+		this.shelfImportService = shelfImportService;
 	}
 
 	@PostMapping("/register/request")
@@ -97,4 +103,55 @@ public class UserBookController {
 			return ResponseEntity.internalServerError().build();
 		}
 	}
+	
+	@PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<Map<String, String>> importShelf(
+			@AuthenticationPrincipal PrincipalDetails principalDetails,
+			@RequestBody List<ShelfImportItem> items,
+			@RequestParam(required = false) String label,
+			@RequestParam(required = false) String address,
+			@RequestParam(value = "user_lat", required = false) Double userLat,
+			@RequestParam(value = "user_lon", required = false) Double userLon) {
+		try {
+			String jobId = shelfImportService.startImport(principalDetails.getId(), items, label, address, userLat, userLon);
+			return ResponseEntity.accepted().body(Map.of("jobId", jobId));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.badRequest().build();
+		} catch (EntityNotFoundException e) {
+			return ResponseEntity.notFound().build();
+		} catch (Exception e) {
+			return ResponseEntity.internalServerError().build();
+		}
+	}
+	
+	@PostMapping(value = "/import", consumes = "text/csv")
+	public ResponseEntity<Map<String, String>> importShelfCsv(
+			@AuthenticationPrincipal PrincipalDetails principalDetails,
+			@RequestBody String csv,
+			@RequestParam(required = false) String label,
+			@RequestParam(required = false) String address,
+			@RequestParam(value = "user_lat", required = false) Double userLat,
+			@RequestParam(value = "user_lon", required = false) Double userLon) {
+		try {
+			String jobId = shelfImportService.startImport(principalDetails.getId(), csv, label, address, userLat, userLon);
+			return ResponseEntity.accepted().body(Map.of("jobId", jobId));
+		} catch (IllegalArgumentException e) { // Also a malformed volume
+			return ResponseEntity.badRequest().build();
+		} catch (EntityNotFoundException e) {
+			return ResponseEntity.notFound().build();
+		} catch (Exception e) {
+			return ResponseEntity.internalServerError().build();
+		}
+	}
+	
+	@GetMapping("/import/{jobId}")
+	public ResponseEntity<ShelfImportProgress> getImportProgress(
+			@AuthenticationPrincipal PrincipalDetails principalDetails,
+			@PathVariable String jobId) {
+		try {
+			return ResponseEntity.ok(shelfImportService.getProgress(principalDetails.getId(), jobId));
+		} catch (EntityNotFoundException e) {
+			return ResponseEntity.notFound().build();
+		}
+	}
 }
@@ -0,0 +1,58 @@
+package com.social.bookshare.domain;
+
+import java.time.LocalDateTime;
+
+import com.social.bookshare.domain.Book.Kdc;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Local mirror of a data4library.kr book, written in batches by LibraryBookMirror (upsert by isbn13).
+ */
+@Entity
+@Table(name = "library_books")
+public class LibraryBook {
+	
+	protected LibraryBook() {}
+
+	@Id
+    @Column(length = 13)
+    private String isbn13;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String title;
+    
+    @Column(nullable = false)
+    private Short volume = 1;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "class_nm", length = 10)
+    private Kdc className;
+
+    @Column(columnDefinition = "TEXT")
+    private String author;
+    
+    @Column(columnDefinition = "TEXT")
+    private String publisher;
+    
+    @Column(name = "image_url", columnDefinition = "TEXT")
+    private String imageURL;
+    
+    @Column(name = "fetched_at", nullable = false)
+    private LocalDateTime fetchedAt; // Last time upstream returned it
+    
+    // Getters
+    public String getIsbn13() { return isbn13; }
+	public String getTitle() { return title; }
+	public Short getVolume() { return volume; }
+	public Kdc getClassName() { return className; }
+	public String getAuthor() { return author; }
+	public String getPublisher() { return publisher; }
+	public String getImageURL() { return imageURL; }
+	public LocalDateTime getFetchedAt() { return fetchedAt; }
+}
@@ -3,20 +3,24 @@ package com.social.bookshare.domain;
 import org.locationtech.jts.geom.Point;
 
 import com.social.bookshare.config.entity.BaseEntity;
+import com.social.bookshare.index.LocationIndexListener;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.Size;
 
 @Entity
 @Table(name = "user_locations")
+@EntityListeners(LocationIndexListener.class)
 public class Location extends BaseEntity {
 
 	protected Location() {}
@@ -31,7 +35,8 @@ public class Location extends BaseEntity {
 	}
 	
 	@Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_locations_seq")
+    @SequenceGenerator(name = "user_locations_seq", sequenceName = "user_locations_seq", allocationSize = 50)
     private Long id;
 	
 	@ManyToOne(fetch = FetchType.LAZY)
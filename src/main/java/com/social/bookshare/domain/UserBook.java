@@ -12,6 +12,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -30,7 +31,8 @@ public class UserBook extends BaseEntity {
 	}
 	
 	@Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_books_seq")
+    @SequenceGenerator(name = "user_books_seq", sequenceName = "user_books_seq", allocationSize = 50)
     private Long id;
 	
 	@ManyToOne(fetch = FetchType.LAZY)
@@ -10,6 +10,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 
 @Entity
@@ -25,7 +26,8 @@ public class UserKey extends BaseEntity {
     }
 
 	@Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_keys_seq")
+    @SequenceGenerator(name = "user_keys_seq", sequenceName = "user_keys_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -43,6 +45,8 @@ public class UserKey extends BaseEntity {
     }
     
     // Getters
+    public Long getId() { return id; }
+    public User getUser() { return user; }
     public String getKey() { return key; }
     public String getType() { return type; }
     
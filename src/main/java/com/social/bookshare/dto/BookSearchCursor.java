@@ -0,0 +1,55 @@
+package com.social.bookshare.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import com.social.bookshare.dto.response.BookSearchResult;
+
+/**
+ * Keyset position in private book search, ordered by (title, isbn13).
+ * Clients only see it as an opaque token.
+ */
+public class BookSearchCursor {
+	
+	private static final char SEPARATOR = '\n';
+	private static final BookSearchCursor START = new BookSearchCursor("", "");
+
+	private BookSearchCursor(String title, String isbn13) {
+		this.title = title;
+		this.isbn13 = isbn13;
+	}
+	
+	private final String title;
+	private final String isbn13;
+	
+	public String getTitle() { return title; }
+	public String getIsbn13() { return isbn13; }
+	public boolean isStart() { return title.isEmpty() && isbn13.isEmpty(); }
+	
+	/** Before the first row */
+	public static BookSearchCursor start() { return START; }
+	
+	public static BookSearchCursor after(BookSearchResult result) {
+		return new BookSearchCursor(result.getTitle(), result.getIsbn13());
+	}
+	
+	public String encode() {
+		return Base64.getUrlEncoder().withoutPadding()
+				.encodeToString((title + SEPARATOR + isbn13).getBytes(StandardCharsets.UTF_8));
+	}
+	
+	public static BookSearchCursor decode(String token) {
+		String decoded;
+		try {
+			decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor", e);
+		}
+		
+		int separator = decoded.lastIndexOf(SEPARATOR); // isbn13 never contains it
+		if (separator < 0) {
+			throw new IllegalArgumentException("Invalid cursor");
+		}
+		return new BookSearchCursor(decoded.substring(0, separator), decoded.substring(separator + 1));
+	}
+}
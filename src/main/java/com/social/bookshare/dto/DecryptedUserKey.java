@@ -0,0 +1,18 @@
+package com.social.bookshare.dto;
+
+public class DecryptedUserKey {
+
+	public DecryptedUserKey(Long id, String type, String key) {
+		this.id = id;
+		this.type = type;
+		this.key = key;
+	}
+	
+	private final Long id;
+	private final String type; // GEMINI, OPENAI, ...
+	private final String key;  // Plain text, never persist or log
+	
+	public Long getId() { return id; }
+	public String getType() { return type; }
+	public String getKey() { return key; }
+}
@@ -0,0 +1,13 @@
+package com.social.bookshare.dto.request;
+
+import java.util.List;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public class BulkIsbnRequest {
+
+	@JsonProperty("isbn13s")
+	private List<String> isbn13s;
+	
+	public List<String> getIsbn13s() { return isbn13s; }
+}
@@ -0,0 +1,56 @@
+package com.social.bookshare.dto.request;
+
+import java.util.stream.Stream;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/** One row of a shelf import: ISBN only, or the full book details (like BookRegisterRequest) */
+public class ShelfImportItem {
+
+	public ShelfImportItem() {}
+
+	public ShelfImportItem(String isbn13, String title, Short volume, String className, String author, String publisher,
+			String imageUrl, String comment) {
+		this.isbn13 = isbn13;
+		this.title = title;
+		this.volume = volume;
+		this.className = className;
+		this.author = author;
+		this.publisher = publisher;
+		this.imageUrl = imageUrl;
+		this.comment = comment;
+	}
+
+	private String isbn13;
+	private String title;
+	private Short volume;
+
+	@JsonProperty("class_nm")
+	private String className;
+
+	private String author;
+	private String publisher;
+
+	@JsonProperty("image_url")
+	private String imageUrl;
+
+	private String comment;
+
+	public boolean hasIsbn() {
+		return isbn13 != null && !isbn13.isBlank();
+	}
+
+	public boolean hasDetails() {
+		return Stream.of(title, className, author, publisher).allMatch(s -> s != null && !s.isBlank());
+	}
+
+	// Getters
+	public String getIsbn13() { return isbn13; }
+	public String getTitle() { return title; }
+	public Short getVolume() { return volume; }
+	public String getClassName() { return className; }
+	public String getAuthor() { return author; }
+	public String getPublisher() { return publisher; }
+	public String getImageUrl() { return imageUrl; }
+	public String getComment() { return comment; }
+}
@@ -21,6 +21,7 @@ public class BookLocationResponse {
 	private BookLocationResponse(Builder builder) {
 //		this.type = builder.type;
 		this.owner = builder.owner;
+		this.libCode = builder.libCode;
 		this.label = builder.label;
 		this.address = builder.address;
 		this.distance = builder.distance;
@@ -31,6 +32,9 @@ public class BookLocationResponse {
 
 //	private String type;
 	private String owner;
+	
+	@JsonProperty("lib_code")
+	private String libCode; // Libraries only
     private String label;
     private String address;
     private double distance;
@@ -43,6 +47,7 @@ public class BookLocationResponse {
     // Getters
 //    public String getType() { return type; }
     public String getOwner() { return owner; }
+    public String getLibCode() { return libCode; }
 	public String getLabel() { return label; }
 	public String getAddress() { return address; }
 	public double getDistance() { return distance; }
@@ -58,6 +63,7 @@ public class BookLocationResponse {
 	public static class Builder {
 //		private String type;
 		private String owner;
+		private String libCode;
 	    private String label;
 	    private String address;
 	    private double distance;
@@ -75,6 +81,11 @@ public class BookLocationResponse {
 	    	return this;
 	    }
 	    
+	    public Builder libCode(String libCode) {
+	    	this.libCode = libCode;
+	    	return this;
+	    }
+	    
 	    public Builder label(String label) {
             this.label = label;
             return this;
@@ -0,0 +1,17 @@
+package com.social.bookshare.dto.response;
+
+import java.util.List;
+
+public class BookSearchPage {
+
+	public BookSearchPage(List<BookSearchResult> results, String nextCursor) {
+		this.results = results;
+		this.nextCursor = nextCursor;
+	}
+	
+	private final List<BookSearchResult> results;
+	private final String nextCursor; // null on the last page
+	
+	public List<BookSearchResult> getResults() { return results; }
+	public String getNextCursor() { return nextCursor; }
+}
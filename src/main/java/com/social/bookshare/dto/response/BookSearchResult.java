@@ -1,12 +1,23 @@
 package com.social.bookshare.dto.response;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.social.bookshare.domain.Book;
 import com.social.bookshare.domain.Book.Kdc;
+import com.social.bookshare.domain.LibraryBook;
 
 public class BookSearchResult {
 
-	public BookSearchResult(String title, short volume, String className, String author, 
-			String publisher, String isbn13, String image, boolean fromLibrary) {
+	@JsonCreator // Also read back from the library API cache
+	public BookSearchResult(
+			@JsonProperty("title") String title, 
+			@JsonProperty("volume") short volume, 
+			@JsonProperty("class_nm") String className, 
+			@JsonProperty("author") String author, 
+			@JsonProperty("publisher") String publisher, 
+			@JsonProperty("isbn13") String isbn13, 
+			@JsonProperty("image") String image, 
+			@JsonProperty("from_library") boolean fromLibrary) {
 		this.title = title;
 		this.volume = volume;
 		this.className = Kdc.valueOf(className.toUpperCase());
@@ -52,6 +63,32 @@ public class BookSearchResult {
 	public String getImage() { return image; }
 	public boolean fromLibrary() { return fromLibrary; }
 	
+	public static BookSearchResult from(Book book) { // Private (DB) book
+		return builder()
+				.title(book.getTitle())
+				.volume(book.getVolume())
+				.className(book.getClassName().name())
+				.author(book.getAuthor())
+				.publisher(book.getPublisher())
+				.isbn13(book.getIsbn13())
+				.image(book.getImageURL())
+				.fromLibrary(false)
+				.build();
+	}
+	
+	public static BookSearchResult from(LibraryBook book) { // Mirrored library book
+		return builder()
+				.title(book.getTitle())
+				.volume(book.getVolume())
+				.className(book.getClassName())
+				.author(book.getAuthor())
+				.publisher(book.getPublisher())
+				.isbn13(book.getIsbn13())
+				.image(book.getImageURL())
+				.fromLibrary(true)
+				.build();
+	}
+	
 	//Builder
 	public static Builder builder() {
         return new Builder();
@@ -81,6 +118,11 @@ public class BookSearchResult {
             this.className = Kdc.valueOf(className.toUpperCase());
             return this;
         }
+
+        public Builder className(Kdc className) {
+            this.className = className;
+            return this;
+        }
 	    
 	    public Builder author(String author) {
             this.author = author;
@@ -0,0 +1,20 @@
+package com.social.bookshare.dto.response;
+
+public class IsbnLookupResult {
+
+	public enum Status { FOUND, NOT_FOUND, FAILED }
+	
+	public IsbnLookupResult(String isbn13, Status status, BookSearchResult book) {
+		this.isbn13 = isbn13;
+		this.status = status;
+		this.book = book;
+	}
+	
+	private final String isbn13;
+	private final Status status;
+	private final BookSearchResult book; // null unless FOUND
+	
+	public String getIsbn13() { return isbn13; }
+	public Status getStatus() { return status; }
+	public BookSearchResult getBook() { return book; }
+}
@@ -23,16 +23,19 @@ public class LibraryByBookResponse {
     }
 	
 	public static class LibInfo {
+		private String libCode;
         private String libName;
         private String address;
         private String latitude;
         private String longitude;
         
+        public String getLibCode() { return libCode; }
         public String getLibName() { return libName; }
 		public String getAddress() { return address; }
 		public String getLatitude() { return latitude; }
 		public String getLongitude() { return longitude; }
 		
+		public void setLibCode(String libCode) { this.libCode = libCode; }
 		public void setLibName(String libName) { this.libName = libName; }
 		public void setAddress(String address) { this.address = address; }
 		public void setLatitude(String latitude) { this.latitude = latitude; }
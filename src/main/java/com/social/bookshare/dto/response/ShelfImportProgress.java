@@ -0,0 +1,45 @@
+package com.social.bookshare.dto.response;
+
+/** Snapshot of a shelf import job, kept in Redis while the job runs and for a day after */
+public class ShelfImportProgress {
+
+	public enum State { QUEUED, RUNNING, DONE, FAILED }
+
+	public ShelfImportProgress() {} // Redis codec
+
+	public ShelfImportProgress(String jobId, int total) {
+		this.jobId = jobId;
+		this.total = total;
+		this.state = State.QUEUED;
+	}
+
+	private String jobId;
+	private State state;
+	private int total;
+	private int imported; // New user_books rows
+	private int skipped; // Duplicate rows, or books already on the user's shelf
+	private int failed; // Invalid rows, or ISBNs not found
+	private String message;
+
+	public void start() { this.state = State.RUNNING; }
+	public void done() { this.state = State.DONE; }
+
+	public void fail(String message) {
+		this.state = State.FAILED;
+		this.message = message;
+	}
+
+	public void addImported(int count) { this.imported += count; }
+	public void addSkipped(int count) { this.skipped += count; }
+	public void addFailed(int count) { this.failed += count; }
+
+	// Getters
+	public String getJobId() { return jobId; }
+	public State getState() { return state; }
+	public int getTotal() { return total; }
+	public int getProcessed() { return imported + skipped + failed; }
+	public int getImported() { return imported; }
+	public int getSkipped() { return skipped; }
+	public int getFailed() { return failed; }
+	public String getMessage() { return message; }
+}
@@ -0,0 +1,111 @@
+package com.social.bookshare.index;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.social.bookshare.domain.Book;
+import com.social.bookshare.dto.response.BookSearchResult;
+import com.social.bookshare.repository.BookRepository;
+
+/**
+ * Optional BookIndex over all books (book.index.enabled).
+ * Bulk-loaded in the background after startup, resuming after a failed batch a few times; until then callers stay on SQL.
+ */
+@Component
+public class BookCatalogIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(BookCatalogIndex.class);
+	private static final int LOAD_BATCH = 5000;
+	private static final int MAX_LOAD_ATTEMPTS = 5;
+	private static final Duration LOAD_RETRY_DELAY = Duration.ofSeconds(2); // Doubled per attempt
+	
+	private final BookRepository bookRepository;
+	private final ExecutorService executor;
+	private final boolean enabled;
+	private final BookIndex index = new BookIndex();
+	private volatile boolean ready;
+	private long loadedUpTo; // Last book id indexed by the loader; a retry resumes after it
+	
+	public BookCatalogIndex(BookRepository bookRepository, 
+			@Qualifier("virtualThreadExecutor") ExecutorService executor,
+			@Value("${book.index.enabled:false}") boolean enabled) {
+		this.bookRepository = bookRepository;
+		this.executor = executor;
+		this.enabled = enabled;
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		if (enabled) {
+			executor.execute(this::loadAll);
+		}
+	}
+	
+	public boolean isReady() { return ready; }
+	
+	public List<BookSearchResult> search(String query, int limit) {
+		return index.search(query, limit);
+	}
+	
+	/** Indexes once the surrounding transaction commits */
+	public void index(Book book) {
+		if (!enabled) return;
+		
+		BookSearchResult result = BookSearchResult.from(book);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					index.add(result);
+				}
+			});
+		} else {
+			index.add(result);
+		}
+	}
+	
+	private void loadAll() {
+		for (int attempt = 1; ; attempt++) {
+			try {
+				this.loadBatches();
+				ready = true;
+				return;
+			} catch (RuntimeException e) {
+				if (attempt >= MAX_LOAD_ATTEMPTS) {
+					log.error("Book index not loaded after {} attempts; keyword search stays on SQL", attempt, e);
+					return;
+				}
+				log.warn("Book index load failed after id {}; retrying", loadedUpTo, e);
+			}
+			try {
+				Thread.sleep(LOAD_RETRY_DELAY.multipliedBy(1L << (attempt - 1)));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+	
+	private void loadBatches() {
+		List<Book> batch;
+		do {
+			batch = bookRepository.findByIdGreaterThanOrderByIdAsc(loadedUpTo, Limit.of(LOAD_BATCH));
+			for (Book book : batch) {
+				index.add(BookSearchResult.from(book)); // Books registered meanwhile are skipped by isbn13
+			}
+			if (!batch.isEmpty()) loadedUpTo = batch.get(batch.size() - 1).getId();
+		} while (batch.size() == LOAD_BATCH);
+	}
+}
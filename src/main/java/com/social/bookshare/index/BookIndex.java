@@ -0,0 +1,296 @@
+package com.social.bookshare.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.social.bookshare.dto.response.BookSearchResult;
+
+/**
+ * In-memory inverted index over title, author and publisher.
+ * Postings are sorted int arrays of dense doc ids; the term dictionary is sorted for prefix lookups.
+ * Every query term must match (AND). The last term also matches as a prefix (typeahead),
+ * and Latin terms of 4+ chars fall back to edit distance 1 when nothing else matches.
+ */
+public class BookIndex {
+
+	private static final int FUZZY_MIN_LENGTH = 4;
+	private static final int EXACT = 3, PREFIX = 2, FUZZY = 1; // Match quality weights
+	
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final TreeMap<String, Postings> postings = new TreeMap<>();
+	private final Map<String, List<String>> deletions = new HashMap<>(); // One-char deletion variant -> terms (fuzzy)
+	private final List<BookSearchResult> docs = new ArrayList<>();
+	private final Set<String> indexedIsbns = new HashSet<>();
+	
+	/** @return false if the book was already indexed */
+	public boolean add(BookSearchResult book) {
+		lock.writeLock().lock();
+		try {
+			if (!indexedIsbns.add(book.getIsbn13())) return false;
+			
+			int docId = docs.size();
+			docs.add(book);
+			
+			for (String field : new String[] { book.getTitle(), book.getAuthor(), book.getPublisher() }) {
+				for (String term : BookTokenizer.tokenize(field)) {
+					Postings list = postings.get(term);
+					if (list == null) {
+						postings.put(term, list = new Postings());
+						this.addDeletions(term);
+					}
+					list.add(docId);
+				}
+			}
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+	
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return docs.size();
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	/** Best matches first (match quality, then insertion order) */
+	public List<BookSearchResult> search(String query, int limit) {
+		List<String> terms = BookTokenizer.tokenize(query);
+		if (terms.isEmpty() || limit <= 0) return List.of();
+		
+		lock.readLock().lock();
+		try {
+			List<TermMatch> termMatches = new ArrayList<>(terms.size());
+			for (int i = 0; i < terms.size(); i++) {
+				TermMatch termMatch = this.lookup(terms.get(i), i == terms.size() - 1);
+				if (termMatch.cost == 0) return List.of();
+				termMatches.add(termMatch);
+			}
+			termMatches.sort((x, y) -> Integer.compare(x.cost, y.cost)); // Most selective first
+			
+			long[] matches = termMatches.get(0).materialize(); // Sorted (docId << 8 | score)
+			for (int i = 1; i < termMatches.size() && matches.length > 0; i++) {
+				TermMatch termMatch = termMatches.get(i);
+				matches = (termMatch.lists.size() == 1)
+						? intersect(matches, termMatch.lists.get(0), termMatch.weights.get(0)) // No need to materialize a single list
+						: intersect(matches, termMatch.materialize());
+			}
+			return this.topK(matches, limit);
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+	
+	// Postings matching one query term, with their match quality
+	private TermMatch lookup(String term, boolean last) {
+		TermMatch termMatch = new TermMatch();
+		
+		Postings exact = postings.get(term);
+		if (exact != null) {
+			termMatch.add(exact, EXACT);
+		}
+		if (last) {
+			NavigableMap<String, Postings> prefixed = postings.subMap(term, false, term + Character.MAX_VALUE, false);
+			for (Postings list : prefixed.values()) {
+				termMatch.add(list, PREFIX);
+			}
+		}
+		if (termMatch.lists.isEmpty() && isFuzzyTerm(term)) {
+			for (String candidate : this.fuzzyCandidates(term)) {
+				termMatch.add(postings.get(candidate), FUZZY);
+			}
+		}
+		return termMatch;
+	}
+	
+	private static long[] intersect(long[] a, long[] b) {
+		long[] out = new long[Math.min(a.length, b.length)];
+		int i = 0, j = 0, n = 0;
+		while (i < a.length && j < b.length) {
+			long docA = a[i] >>> 8, docB = b[j] >>> 8;
+			if (docA < docB) i++;
+			else if (docA > docB) j++;
+			else {
+				out[n++] = (docA << 8) | Math.min(0xFF, (a[i] & 0xFF) + (b[j] & 0xFF)); // Scores add up
+				i++;
+				j++;
+			}
+		}
+		return Arrays.copyOf(out, n);
+	}
+	
+	// Galloping search: cheap when matches are few and the list is long
+	private static long[] intersect(long[] matches, Postings list, int weight) {
+		long[] out = new long[matches.length];
+		int n = 0, from = 0;
+		for (long match : matches) {
+			int docId = (int) (match >>> 8);
+			
+			int step = 1, hi = from;
+			while (hi < list.size && list.ids[hi] < docId) {
+				from = hi + 1;
+				hi += step;
+				step <<= 1;
+			}
+			int found = Arrays.binarySearch(list.ids, from, Math.min(hi + 1, list.size), docId);
+			if (found >= 0) {
+				out[n++] = ((long) docId << 8) | Math.min(0xFF, (match & 0xFF) + weight);
+				from = found + 1;
+			} else {
+				from = -found - 1;
+			}
+			if (from >= list.size) break;
+		}
+		return Arrays.copyOf(out, n);
+	}
+	
+	private List<BookSearchResult> topK(long[] matches, int limit) {
+		// Rank key: higher score first, then lower doc id. Max-heap keeps the k smallest keys.
+		int k = Math.min(limit, matches.length);
+		long[] heap = new long[k];
+		int size = 0;
+		
+		for (long match : matches) {
+			long key = ((0xFFL - (match & 0xFF)) << 32) | (match >>> 8);
+			if (size < k) {
+				heap[size] = key;
+				siftUp(heap, size++);
+			} else if (key < heap[0]) {
+				heap[0] = key;
+				siftDown(heap, k);
+			}
+		}
+		Arrays.sort(heap);
+		
+		List<BookSearchResult> results = new ArrayList<>(k);
+		for (long key : heap) {
+			results.add(docs.get((int) (key & 0xFFFFFFFFL)));
+		}
+		return results;
+	}
+	
+	private static void siftUp(long[] heap, int i) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (heap[parent] >= heap[i]) return;
+			long t = heap[parent]; heap[parent] = heap[i]; heap[i] = t;
+			i = parent;
+		}
+	}
+	
+	private static void siftDown(long[] heap, int size) {
+		int i = 0;
+		while (true) {
+			int largest = i, left = 2 * i + 1, right = left + 1;
+			if (left < size && heap[left] > heap[largest]) largest = left;
+			if (right < size && heap[right] > heap[largest]) largest = right;
+			if (largest == i) return;
+			long t = heap[largest]; heap[largest] = heap[i]; heap[i] = t;
+			i = largest;
+		}
+	}
+	
+	private void addDeletions(String term) {
+		if (!isFuzzyTerm(term)) return;
+		
+		deletions.computeIfAbsent(term, k -> new ArrayList<>(1)).add(term);
+		for (int i = 0; i < term.length(); i++) {
+			String variant = term.substring(0, i) + term.substring(i + 1);
+			deletions.computeIfAbsent(variant, k -> new ArrayList<>(1)).add(term);
+		}
+	}
+	
+	// Symmetric deletion: terms sharing a one-char-deleted form are within insert/delete/substitute distance 1
+	private Set<String> fuzzyCandidates(String term) {
+		Set<String> candidates = new HashSet<>();
+		this.addWithinOne(candidates, term, deletions.get(term));
+		for (int i = 0; i < term.length(); i++) {
+			this.addWithinOne(candidates, term, deletions.get(term.substring(0, i) + term.substring(i + 1)));
+		}
+		return candidates;
+	}
+	
+	private void addWithinOne(Set<String> candidates, String term, List<String> terms) {
+		if (terms == null) return;
+		for (String candidate : terms) {
+			if (withinOneEdit(term, candidate)) candidates.add(candidate);
+		}
+	}
+	
+	private static boolean withinOneEdit(String a, String b) {
+		if (Math.abs(a.length() - b.length()) > 1) return false;
+		if (a.length() > b.length()) { String t = a; a = b; b = t; }
+		
+		int i = 0, j = 0, edits = 0;
+		while (i < a.length() && j < b.length()) {
+			if (a.charAt(i) == b.charAt(j)) { i++; j++; continue; }
+			if (++edits > 1) return false;
+			if (a.length() == b.length()) i++; // Substitution
+			j++;                               // Insertion into a
+		}
+		return edits + (b.length() - j) <= 1;
+	}
+	
+	private static boolean isFuzzyTerm(String term) {
+		return term.length() >= FUZZY_MIN_LENGTH && !BookTokenizer.isHangul(term.charAt(0));
+	}
+	
+	private static final class TermMatch {
+		private final List<Postings> lists = new ArrayList<>();
+		private final List<Integer> weights = new ArrayList<>();
+		private int cost;
+		
+		void add(Postings list, int weight) {
+			lists.add(list);
+			weights.add(weight);
+			cost += list.size;
+		}
+		
+		long[] materialize() {
+			long[] merged = new long[cost];
+			int n = 0;
+			for (int i = 0; i < lists.size(); i++) {
+				Postings list = lists.get(i);
+				long weight = weights.get(i);
+				for (int j = 0; j < list.size; j++) {
+					merged[n++] = ((long) list.ids[j] << 8) | weight;
+				}
+			}
+			if (lists.size() == 1) {
+				return merged; // Single postings list: already sorted and unique
+			}
+			Arrays.sort(merged);
+			
+			// Same doc from several terms: keep the best quality (last in sort order)
+			int unique = 0;
+			for (int i = 0; i < n; i++) {
+				if (i + 1 < n && (merged[i] >>> 8) == (merged[i + 1] >>> 8)) continue;
+				merged[unique++] = merged[i];
+			}
+			return Arrays.copyOf(merged, unique);
+		}
+	}
+	
+	// Growable sorted int list (doc ids only increase)
+	private static final class Postings {
+		private int[] ids = new int[4];
+		private int size;
+		
+		void add(int docId) {
+			if (size > 0 && ids[size - 1] == docId) return; // Term repeated in the same book
+			if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+			ids[size++] = docId;
+		}
+	}
+}
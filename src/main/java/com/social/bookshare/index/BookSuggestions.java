@@ -0,0 +1,64 @@
+package com.social.bookshare.index;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.social.bookshare.repository.BookRepository;
+import com.social.bookshare.repository.BookRepository.SuggestionSourceProjection;
+
+/**
+ * Title/author completions weighted by how many times each book is shared (user_books).
+ * Rebuilt off the request path and swapped in whole; readers never see a partial index.
+ */
+@Component
+public class BookSuggestions {
+
+	private final BookRepository bookRepository;
+	private final ExecutorService executor;
+	private final TransactionTemplate readOnlyTx;
+	private volatile SuggestionIndex index = SuggestionIndex.empty();
+	
+	public BookSuggestions(BookRepository bookRepository, 
+			@Qualifier("virtualThreadExecutor") ExecutorService executor,
+			PlatformTransactionManager transactionManager) {
+		this.bookRepository = bookRepository;
+		this.executor = executor;
+		this.readOnlyTx = new TransactionTemplate(transactionManager);
+		this.readOnlyTx.setReadOnly(true);
+	}
+	
+	public List<String> suggest(String prefix, int limit) {
+		return index.suggest(prefix, limit);
+	}
+	
+	@EventListener(ApplicationReadyEvent.class)
+	public void initialBuild() {
+		executor.execute(this::rebuild);
+	}
+	
+	@Scheduled(fixedDelayString = "${book.suggest.rebuildInterval:10m}", initialDelayString = "${book.suggest.rebuildInterval:10m}")
+	public void rebuild() {
+		SuggestionIndex.Builder builder = new SuggestionIndex.Builder();
+		
+		readOnlyTx.executeWithoutResult(status -> {
+			try (Stream<SuggestionSourceProjection> sources = bookRepository.streamSuggestionSources()) {
+				sources.forEach(source -> {
+					long shares = source.getShares();
+					builder.add(source.getTitle(), shares);
+					builder.add(source.getAuthor(), shares);
+				});
+			}
+		});
+		
+		index = builder.build(); // Atomic swap
+	}
+}
@@ -0,0 +1,60 @@
+package com.social.bookshare.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits book text into index terms.
+ * Hangul runs become overlapping bigrams (Korean has no reliable word boundaries, "한강소설" -> 한강, 강소, 소설),
+ * other letter/digit runs become whole lowercase words.
+ */
+public final class BookTokenizer {
+
+	private BookTokenizer() {
+        throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+    }
+	
+	public static List<String> tokenize(String text) {
+		List<String> tokens = new ArrayList<>();
+		if (text == null || text.isBlank()) return tokens;
+		
+		String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+		
+		int runStart = -1;
+		boolean runHangul = false;
+		for (int i = 0; i < normalized.length(); i++) {
+			char c = normalized.charAt(i);
+			boolean word = Character.isLetterOrDigit(c);
+			boolean hangul = isHangul(c);
+			
+			if (runStart >= 0 && (!word || hangul != runHangul)) {
+				addRun(tokens, normalized, runStart, i, runHangul);
+				runStart = -1;
+			}
+			if (word && runStart < 0) {
+				runStart = i;
+				runHangul = hangul;
+			}
+		}
+		if (runStart >= 0) {
+			addRun(tokens, normalized, runStart, normalized.length(), runHangul);
+		}
+		return tokens;
+	}
+	
+	public static boolean isHangul(char c) {
+		return c >= '가' && c <= '힣';
+	}
+	
+	private static void addRun(List<String> tokens, String text, int start, int end, boolean hangul) {
+		if (!hangul || end - start == 1) {
+			tokens.add(text.substring(start, end));
+			return;
+		}
+		for (int i = start; i + 1 < end; i++) {
+			tokens.add(text.substring(i, i + 2));
+		}
+	}
+}
@@ -0,0 +1,270 @@
+package com.social.bookshare.index;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory spatial index over location points: a uniform lat/lon grid, each cell holding parallel primitive arrays
+ * (id, lat and lon in radians, cos lat) so a scan is a tight loop without boxing.
+ * Radius queries scan the cells overlapping the radius box; k-nearest expands rings of cells around the query cell
+ * until nothing in the next ring could beat the k-th hit. Distances are Haversine meters, as GeometryUtils.
+ * The antimeridian is not wrapped (nothing to wrap in Korea).
+ */
+public class LocationGrid {
+
+	public static final double CELL_DEGREES = 0.01; // ~1.1 km north-south
+
+	private static final double EARTH_RADIUS = 6_371_000.0; // meter
+	private static final double CELL_RADIANS = Math.toRadians(CELL_DEGREES);
+	private static final int MAX_RINGS = 2000; // k-nearest looks no farther than ~20 degrees
+	private static final Comparator<Hit> BY_DISTANCE = Comparator.comparingDouble(Hit::getDistance);
+
+	private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+	private final Map<Long, Cell> cells = new HashMap<>();
+	private int size;
+
+	public static final class Hit {
+
+		private final long id;
+		private final double distance;
+
+		private Hit(long id, double distance) {
+			this.id = id;
+			this.distance = distance;
+		}
+
+		public long getId() { return id; }
+		public double getDistance() { return distance; } // meter
+	}
+
+	/** @return false if the id was already indexed at that point */
+	public boolean add(long id, double lat, double lon) {
+		long key = cellKey(row(lat), col(lon));
+
+		lock.writeLock().lock();
+		try {
+			Cell cell = cells.computeIfAbsent(key, _ -> new Cell());
+			if (cell.indexOf(id) >= 0) return false;
+
+			cell.add(id, Math.toRadians(lat), Math.toRadians(lon));
+			size++;
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	/** Points never move (user_locations are immutable but for label and is_active), so the point finds the cell */
+	public boolean remove(long id, double lat, double lon) {
+		long key = cellKey(row(lat), col(lon));
+
+		lock.writeLock().lock();
+		try {
+			Cell cell = cells.get(key);
+			int i = (cell == null) ? -1 : cell.indexOf(id);
+			if (i < 0) return false;
+
+			cell.removeAt(i);
+			if (cell.size == 0) cells.remove(key);
+			size--;
+			return true;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public void clear() {
+		lock.writeLock().lock();
+		try {
+			cells.clear();
+			size = 0;
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	public int size() {
+		lock.readLock().lock();
+		try {
+			return size;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/** Every point within radiusMeters, nearest first */
+	public List<Hit> withinRadius(double lat, double lon, double radiusMeters) {
+		double latSpan = Math.toDegrees(radiusMeters / EARTH_RADIUS);
+		// Longitude degrees are widest at the box edge nearest the pole
+		double lonSpan = latSpan / Math.max(Math.cos(Math.toRadians(Math.min(89.9, Math.abs(lat) + latSpan))), 1e-6);
+
+		int minRow = row(lat - latSpan), maxRow = row(lat + latSpan);
+		int minCol = col(lon - lonSpan), maxCol = col(lon + lonSpan);
+		Query query = new Query(lat, lon);
+		List<Hit> hits = new ArrayList<>();
+
+		lock.readLock().lock();
+		try {
+			if ((long) (maxRow - minRow + 1) * (maxCol - minCol + 1) > cells.size()) {
+				// Huge box over a sparse grid: walk the occupied cells instead
+				for (Map.Entry<Long, Cell> entry : cells.entrySet()) {
+					int row = (int) (entry.getKey() >> 32), col = (int) (long) entry.getKey();
+					if (row >= minRow && row <= maxRow && col >= minCol && col <= maxCol) {
+						query.collect(entry.getValue(), radiusMeters, hits);
+					}
+				}
+			} else {
+				for (int row = minRow; row <= maxRow; row++) {
+					for (int col = minCol; col <= maxCol; col++) {
+						Cell cell = cells.get(cellKey(row, col));
+						if (cell != null) query.collect(cell, radiusMeters, hits);
+					}
+				}
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		hits.sort(BY_DISTANCE);
+		return hits;
+	}
+
+	/** The k nearest points, nearest first */
+	public List<Hit> nearest(double lat, double lon, int k) {
+		if (k <= 0) return List.of();
+
+		int row0 = row(lat), col0 = col(lon);
+		Query query = new Query(lat, lon);
+		PriorityQueue<Hit> best = new PriorityQueue<>(k, BY_DISTANCE.reversed()); // Max-heap of the k best so far
+
+		lock.readLock().lock();
+		try {
+			int visited = 0;
+			for (int ring = 0; ring <= MAX_RINGS && visited < cells.size(); ring++) {
+				for (int row = row0 - ring; row <= row0 + ring; row++) {
+					boolean edgeRow = row == row0 - ring || row == row0 + ring;
+					int step = (edgeRow || ring == 0) ? 1 : 2 * ring; // Inner rows: only the two side cells
+
+					for (int col = col0 - ring; col <= col0 + ring; col += step) {
+						Cell cell = cells.get(cellKey(row, col));
+						if (cell == null) continue;
+
+						visited++;
+						query.offer(cell, k, best);
+					}
+				}
+				// Points beyond this ring differ by >= ring cells in lat or lon; the nearer bound is the meridian one
+				if (best.size() == k && best.peek().distance <= query.minDistanceBeyond(ring)) break;
+			}
+		} finally {
+			lock.readLock().unlock();
+		}
+
+		List<Hit> hits = new ArrayList<>(best);
+		hits.sort(BY_DISTANCE);
+		return hits;
+	}
+
+	private static int row(double lat) {
+		return (int) Math.floor(lat / CELL_DEGREES);
+	}
+
+	private static int col(double lon) {
+		return (int) Math.floor(lon / CELL_DEGREES);
+	}
+
+	private static long cellKey(int row, int col) {
+		return ((long) row << 32) | (col & 0xffffffffL);
+	}
+
+	/** Query point, trig done once */
+	private static final class Query {
+
+		private final double latRad;
+		private final double lonRad;
+		private final double cosLat;
+
+		private Query(double lat, double lon) {
+			this.latRad = Math.toRadians(lat);
+			this.lonRad = Math.toRadians(lon);
+			this.cosLat = Math.cos(latRad);
+		}
+
+		private double distance(Cell cell, int i) {
+			double sinDLat = Math.sin((cell.latRads[i] - latRad) / 2);
+			double sinDLon = Math.sin((cell.lonRads[i] - lonRad) / 2);
+			double a = sinDLat * sinDLat + cosLat * cell.cosLats[i] * sinDLon * sinDLon;
+
+			return 2 * EARTH_RADIUS * Math.asin(Math.min(1, Math.sqrt(a)));
+		}
+
+		private void collect(Cell cell, double radiusMeters, List<Hit> hits) {
+			for (int i = 0; i < cell.size; i++) {
+				double distance = this.distance(cell, i);
+				if (distance <= radiusMeters) hits.add(new Hit(cell.ids[i], distance));
+			}
+		}
+
+		private void offer(Cell cell, int k, PriorityQueue<Hit> best) {
+			for (int i = 0; i < cell.size; i++) {
+				double distance = this.distance(cell, i);
+				if (best.size() < k) {
+					best.add(new Hit(cell.ids[i], distance));
+				} else if (distance < best.peek().distance) {
+					best.poll();
+					best.add(new Hit(cell.ids[i], distance));
+				}
+			}
+		}
+
+		/** Lower bound on the distance to any point more than `ring` cells away (shortest way to a meridian that far) */
+		private double minDistanceBeyond(int ring) {
+			return EARTH_RADIUS * Math.asin(Math.min(1, Math.sin(ring * CELL_RADIANS) * cosLat));
+		}
+	}
+
+	private static final class Cell {
+
+		private long[] ids = new long[4];
+		private double[] latRads = new double[4];
+		private double[] lonRads = new double[4];
+		private double[] cosLats = new double[4];
+		private int size;
+
+		private int indexOf(long id) {
+			for (int i = 0; i < size; i++) {
+				if (ids[i] == id) return i;
+			}
+			return -1;
+		}
+
+		private void add(long id, double latRad, double lonRad) {
+			if (size == ids.length) {
+				int capacity = size * 2;
+				ids = Arrays.copyOf(ids, capacity);
+				latRads = Arrays.copyOf(latRads, capacity);
+				lonRads = Arrays.copyOf(lonRads, capacity);
+				cosLats = Arrays.copyOf(cosLats, capacity);
+			}
+			ids[size] = id;
+			latRads[size] = latRad;
+			lonRads[size] = lonRad;
+			cosLats[size] = Math.cos(latRad);
+			size++;
+		}
+
+		private void removeAt(int i) { // Swap with the last, order does not matter
+			int last = --size;
+			ids[i] = ids[last];
+			latRads[i] = latRads[last];
+			lonRads[i] = lonRads[last];
+			cosLats[i] = cosLats[last];
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package com.social.bookshare.index;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.StatusListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import com.social.bookshare.repository.LocationRepository;
+import com.social.bookshare.repository.LocationRepository.LocationPointProjection;
+
+/**
+ * Optional LocationGrid over all active user_locations (location.index.enabled).
+ * Bulk-loaded in the background after startup, then kept current by LocationIndexListener:
+ * committed changes are applied here and sent to every other instance through a Redis topic.
+ * A resubscription (changes may have been missed meanwhile) reloads the grid; until loaded, callers stay on PostGIS.
+ */
+@Component
+public class LocationIndex {
+
+	private static final Logger log = LoggerFactory.getLogger(LocationIndex.class);
+	private static final String CHANGES_TOPIC = "location-index-changes";
+	private static final int LOAD_BATCH = 5000;
+
+	private final LocationRepository locationRepository;
+	private final ExecutorService executor;
+	private final RTopic topic;
+	private final boolean enabled;
+	private final String instanceId = UUID.randomUUID().toString(); // Own changes are applied before publishing
+	private final LocationGrid grid = new LocationGrid();
+	private final Set<Long> removedWhileLoading = ConcurrentHashMap.newKeySet(); // So a batch read earlier does not bring them back
+	private final Object loadLock = new Object(); // Loader check-and-add vs apply, so a removal cannot slip in between
+	private final AtomicBoolean loading = new AtomicBoolean();
+	private final AtomicBoolean reloadRequested = new AtomicBoolean(); // A reload asked for mid-load starts it over
+	private final AtomicBoolean subscribed = new AtomicBoolean();
+	private volatile boolean ready;
+
+	public LocationIndex(LocationRepository locationRepository, RedissonClient redissonClient,
+			@Qualifier("virtualThreadExecutor") ExecutorService executor,
+			@Value("${location.index.enabled:false}") boolean enabled) {
+		this.locationRepository = locationRepository;
+		this.executor = executor;
+		this.topic = redissonClient.getTopic(CHANGES_TOPIC);
+		this.enabled = enabled;
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void load() {
+		if (!enabled) return;
+
+		topic.addListener(String.class, (_, message) -> this.receive(message));
+		topic.addListener(new StatusListener() {
+			@Override
+			public void onSubscribe(String channel) {
+				if (!subscribed.compareAndSet(false, true)) {
+					log.info("Location index resubscribed; reloading, as changes may have been missed");
+					executor.execute(LocationIndex.this::reload);
+				}
+			}
+
+			@Override
+			public void onUnsubscribe(String channel) {
+			}
+		});
+		executor.execute(this::reload);
+	}
+
+	public boolean isEnabled() { return enabled; }
+	public boolean isReady() { return ready; }
+
+	public List<LocationGrid.Hit> withinRadius(double lat, double lon, double radiusMeters) {
+		return grid.withinRadius(lat, lon, radiusMeters);
+	}
+
+	public List<LocationGrid.Hit> nearest(double lat, double lon, int k) {
+		return grid.nearest(lat, lon, k);
+	}
+
+	/** A committed insert, toggle or delete of a location: applied here, then on every other instance */
+	void publish(long id, double lat, double lon, boolean active) {
+		this.apply(id, lat, lon, active);
+		topic.publishAsync(String.join("|", instanceId, Long.toString(id), Double.toString(lat), Double.toString(lon),
+				Boolean.toString(active)));
+	}
+
+	private void receive(String message) {
+		String[] fields = message.split("\\|");
+		if (fields.length != 5 || fields[0].equals(instanceId)) return;
+
+		this.apply(Long.parseLong(fields[1]), Double.parseDouble(fields[2]), Double.parseDouble(fields[3]),
+				Boolean.parseBoolean(fields[4]));
+	}
+
+	private void apply(long id, double lat, double lon, boolean active) {
+		synchronized (loadLock) {
+			if (active) {
+				removedWhileLoading.remove(id);
+				grid.add(id, lat, lon);
+			} else {
+				if (!ready) removedWhileLoading.add(id);
+				grid.remove(id, lat, lon);
+			}
+		}
+	}
+
+	private void reload() {
+		reloadRequested.set(true);
+		while (reloadRequested.get() && loading.compareAndSet(false, true)) {
+			try {
+				while (reloadRequested.getAndSet(false)) {
+					synchronized (loadLock) {
+						ready = false;
+						grid.clear();
+						removedWhileLoading.clear();
+					}
+					this.loadAll();
+				}
+			} catch (RuntimeException e) { // Stays not ready: callers keep using PostGIS
+				log.warn("Location index not loaded", e);
+			} finally {
+				loading.set(false);
+			}
+		}
+	}
+
+	private void loadAll() {
+		long lastId = 0;
+		List<LocationPointProjection> batch;
+		do {
+			batch = locationRepository.findActivePointsAfter(lastId, LOAD_BATCH);
+			synchronized (loadLock) {
+				for (LocationPointProjection point : batch) {
+					if (!removedWhileLoading.contains(point.getId())) {
+						grid.add(point.getId(), point.getLat(), point.getLon()); // Added meanwhile: no-op
+					}
+				}
+			}
+			if (!batch.isEmpty()) lastId = batch.get(batch.size() - 1).getId();
+		} while (batch.size() == LOAD_BATCH);
+
+		synchronized (loadLock) {
+			ready = true;
+			removedWhileLoading.clear();
+		}
+	}
+}
@@ -0,0 +1,53 @@
+package com.social.bookshare.index;
+
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.social.bookshare.domain.Location;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/** JPA listener on Location: publishes committed changes to LocationIndex (this and every other instance) */
+@Component
+public class LocationIndexListener {
+
+	private final LocationIndex locationIndex;
+
+	public LocationIndexListener(@Lazy LocationIndex locationIndex) { // Created with the EntityManagerFactory, before the repositories
+		this.locationIndex = locationIndex;
+	}
+
+	@PostPersist
+	@PostUpdate
+	public void onSave(Location location) {
+		this.applyAfterCommit(location, location.isActive());
+	}
+
+	@PostRemove
+	public void onRemove(Location location) {
+		this.applyAfterCommit(location, false);
+	}
+
+	private void applyAfterCommit(Location location, boolean active) {
+		if (!locationIndex.isEnabled()) return;
+
+		long id = location.getId();
+		double lat = location.getLocation().getY();
+		double lon = location.getLocation().getX();
+
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					locationIndex.publish(id, lat, lon, active);
+				}
+			});
+		} else {
+			locationIndex.publish(id, lat, lon, active);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.social.bookshare.index;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable prefix completion over sorted parallel arrays (key, display text, weight).
+ * A prefix is a contiguous key range found by binary search; top-k for 1-2 char prefixes,
+ * whose ranges are the widest, is precomputed.
+ */
+public class SuggestionIndex {
+
+	public static final int MAX_K = 10;
+	private static final int SHORT_PREFIX = 2;
+	
+	private final String[] keys;
+	private final String[] texts;
+	private final long[] weights;
+	private final Map<String, int[]> shortTops = new HashMap<>();
+	
+	private SuggestionIndex(String[] keys, String[] texts, long[] weights) {
+		this.keys = keys;
+		this.texts = texts;
+		this.weights = weights;
+		
+		for (int length = 1; length <= SHORT_PREFIX; length++) {
+			int start = 0;
+			while (start < keys.length) {
+				if (keys[start].length() < length) { start++; continue; }
+				
+				String prefix = keys[start].substring(0, length);
+				int end = this.upperBound(prefix, start);
+				shortTops.put(prefix, this.topK(start, end, MAX_K));
+				start = end;
+			}
+		}
+	}
+	
+	public static SuggestionIndex empty() {
+		return new SuggestionIndex(new String[0], new String[0], new long[0]);
+	}
+	
+	public int size() { return keys.length; }
+	
+	public List<String> suggest(String prefix, int limit) {
+		String key = normalize(prefix);
+		if (key.isEmpty() || limit <= 0) return List.of();
+		
+		int[] top;
+		if (key.length() <= SHORT_PREFIX) {
+			top = shortTops.getOrDefault(key, new int[0]);
+		} else {
+			int start = this.lowerBound(key);
+			top = this.topK(start, this.upperBound(key, start), Math.min(limit, MAX_K));
+		}
+		
+		List<String> suggestions = new ArrayList<>();
+		for (int i = 0; i < top.length && i < limit; i++) {
+			suggestions.add(texts[top[i]]);
+		}
+		return suggestions;
+	}
+	
+	static String normalize(String text) {
+		if (text == null) return "";
+		return Normalizer.normalize(text, Normalizer.Form.NFKC)
+				.toLowerCase(Locale.ROOT)
+				.strip()
+				.replaceAll("\\s+", " ");
+	}
+	
+	private int lowerBound(String key) {
+		int lo = 0, hi = keys.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (keys[mid].compareTo(key) < 0) lo = mid + 1; else hi = mid;
+		}
+		return lo;
+	}
+	
+	// First index at or after from whose key doesn't start with prefix
+	private int upperBound(String prefix, int from) {
+		int lo = from, hi = keys.length;
+		while (lo < hi) {
+			int mid = (lo + hi) >>> 1;
+			if (keys[mid].startsWith(prefix) || keys[mid].compareTo(prefix) < 0) lo = mid + 1; else hi = mid;
+		}
+		return lo;
+	}
+	
+	// Heaviest k in [start, end); ties keep key order
+	private int[] topK(int start, int end, int k) {
+		int[] top = new int[Math.min(k, end - start)];
+		int size = 0;
+		
+		for (int i = start; i < end; i++) {
+			if (size == top.length && weights[i] <= weights[top[size - 1]]) continue;
+			
+			int pos = (size < top.length) ? size++ : size - 1;
+			while (pos > 0 && weights[top[pos - 1]] < weights[i]) { // Insertion into the small sorted array
+				top[pos] = top[pos - 1];
+				pos--;
+			}
+			top[pos] = i;
+		}
+		return Arrays.copyOf(top, size);
+	}
+	
+	public static class Builder {
+		private final Map<String, String> texts = new HashMap<>();
+		private final Map<String, Long> weights = new HashMap<>();
+		
+		/** Same text added again (e.g. an author of several books) adds up its weight */
+		public Builder add(String text, long weight) {
+			String key = normalize(text);
+			if (key.isEmpty()) return this;
+			
+			texts.putIfAbsent(key, text.strip());
+			weights.merge(key, weight, Long::sum);
+			return this;
+		}
+		
+		public SuggestionIndex build() {
+			String[] keys = texts.keySet().toArray(String[]::new);
+			Arrays.sort(keys);
+			
+			String[] display = new String[keys.length];
+			long[] weight = new long[keys.length];
+			for (int i = 0; i < keys.length; i++) {
+				display[i] = texts.get(keys[i]);
+				weight[i] = weights.get(keys[i]);
+			}
+			return new SuggestionIndex(keys, display, weight);
+		}
+	}
+}
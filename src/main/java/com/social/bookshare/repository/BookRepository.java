@@ -2,63 +2,66 @@ package com.social.bookshare.repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.locationtech.jts.geom.Point;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 
 import com.social.bookshare.domain.Book;
-import com.social.bookshare.domain.Book.Kdc;
-import com.social.bookshare.dto.response.BookSearchResult;
 
-public interface BookRepository extends JpaRepository<Book, Long> {
+import jakarta.persistence.QueryHint;
+
+public interface BookRepository extends JpaRepository<Book, Long>, BookRepositoryCustom {
 
 	public Optional<Book> findByIsbn13(String isbn);
 	
-	@Query(value = "SELECT DISTINCT new com.social.bookshare.dto.BookSearchResult("
-			+ "b.title, b.volume, b.className, b.author, b.publisher, b.isbn13, b.imageUrl, FALSE)"
-			+ " FROM Book b"
-			+ " WHERE b.isbn13 = :isbn13"
-			+ "	OR ("
-			+ "		(:title IS NULL OR LOWER(b.title) LIKE LOWER(CONCAT('%', :title, '%')))"
-			+ "		AND (:volume IS NULL OR b.volume = :volume)"
-			+ "		AND (:className IS NULL OR b.className = :className)"
-			+ " 	AND (:author IS NULL OR LOWER(b.author) LIKE LOWER(CONCAT('%', :author, '%')))"
-			+ " 	AND (:publisher IS NULL OR LOWER(b.publisher) LIKE LOWER(CONCAT('%', :publisher, '%')))"
-			+ "		AND (:title IS NOT NULL OR :author IS NOT NULL OR :publisher IS NOT NULL)"
-			+ "	)"
-			+ " ORDER BY b.title ASC")
-	public List<BookSearchResult> searchPrivateBooks(
-				@Param("isbn13") String isbn13,
-				@Param("title") String title,
-				@Param("volume") Short volume,
-				@Param("className") Kdc className,
-		        @Param("author") String author, 
-		        @Param("publisher") String publisher
-	        );
+	public List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit); // Batched full scan
 	
-	@Query(value = "SELECT DISTINCT new com.social.bookshare.dto.BookSearchResult("
-			+ "b.title, b.volume, b.className, b.author, b.publisher, b.isbn13, b.imageUrl, FALSE)"
-			+ " FROM Book b"
-			+ " WHERE b.isbn13 = :isbn13"
-			+ "	OR ("
-			+ "		(:title IS NULL OR LOWER(b.title) = LOWER(:title))"
-			+ "		AND (:volume IS NULL OR b.volume = :volume)"
-			+ "		AND (:className IS NULL OR b.className = :className)"
-			+ " 	AND (:author IS NULL OR LOWER(b.author) = LOWER(:author))"
-			+ " 	AND (:publisher IS NULL OR LOWER(b.publisher) = LOWER(:publisher))"
-			+ "		AND (:title IS NOT NULL OR :author IS NOT NULL OR :publisher IS NOT NULL)"
-			+ "	)"
-			+ " ORDER BY b.title ASC")
-	public List<BookSearchResult> searchPrivateBooksStrictly(
-				@Param("isbn13") String isbn13,
-				@Param("title") String title,
-				@Param("volume") Short volume,
-				@Param("className") Kdc className,
-		        @Param("author") String author, 
-		        @Param("publisher") String publisher
-	        );
+	// One array parameter: a single statement (and plan) whatever the number of ISBNs
+	@Query(value = "SELECT b.id, b.isbn13, b.title, b.volume, b.class_nm, b.author, b.publisher, b.image_url"
+			+ " FROM books b"
+			+ " WHERE b.isbn13 = ANY(:isbns)", 
+			nativeQuery = true)
+	public List<Book> findAllByIsbn13(@Param("isbns") String[] isbns);
+	
+	// Whole words via full-text (search_vector), partial/misspelled words via trigram word similarity (<%):
+	// the keywords against the best-matching extent of the field, so a short keyword still matches a long title.
+	// Each branch is served by its own GIN index (BitmapOr), then ranked by relevance.
+	@Query(value = "WITH q AS (SELECT plainto_tsquery('simple', :keywords) AS ts)"
+			+ " SELECT b.id, b.isbn13, b.title, b.volume, b.class_nm, b.author, b.publisher, b.image_url"
+			+ " FROM books b, q"
+			+ " WHERE b.search_vector @@ q.ts"
+			+ " OR :keywords <% b.title"
+			+ " OR :keywords <% b.author"
+			+ " OR :keywords <% b.publisher"
+			+ " ORDER BY ts_rank(b.search_vector, q.ts)"
+			+ " + GREATEST(word_similarity(:keywords, b.title), word_similarity(:keywords, b.author), word_similarity(:keywords, b.publisher)) DESC,"
+			+ " b.id ASC"
+			+ " LIMIT :pageSize", 
+			nativeQuery = true)
+	public List<Book> searchPrivateBooksRanked(
+				@Param("keywords") String keywords,
+				@Param("pageSize") int pageSize
+			);
+	
+	public interface SuggestionSourceProjection {
+		String getTitle();
+		String getAuthor();
+		Long getShares();
+	}
+	
+	@Query(value = "SELECT b.title AS title, b.author AS author, COUNT(ub.id) AS shares"
+			+ " FROM books b"
+			+ " LEFT JOIN user_books ub ON ub.book_id = b.id"
+			+ " GROUP BY b.id", 
+			nativeQuery = true)
+	@QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "5000"))
+	public Stream<SuggestionSourceProjection> streamSuggestionSources();
 	
 	public interface BookLocationProjection {
 		String getOwner();
@@ -69,23 +72,89 @@ public interface BookRepository extends JpaRepository<Book, Long> {
 	    Double getDistance();
 	}
 
-	@Query(value = "SELECT us.name as owner,"
-			+ " ul.label as label, ul.address as address,"
-			+ " ST_X(ul.location) as lon, ST_Y(ul.location) as lat,"
-			+ " ST_DistanceSphere(ul.location, :userPoint) / 1000.0 as distance"
-			+ " FROM user_books ub"
-			+ " JOIN users us ON ub.owner_id = us.id"
+	// KNN: candidates come off the user_locations GIST index in <-> (planar) order,
+	// then only those are re-ranked by spherical distance (km)
+	String NEAREST_CANDIDATES = "SELECT ub.owner_id, ul.label, ul.address, ul.location"
+			+ " FROM books b"
+			+ " JOIN user_books ub ON ub.book_id = b.id"
 			+ " JOIN user_locations ul ON ub.location_id = ul.id"
-			+ " WHERE ub.isbn13 = :isbn13"
+			+ " WHERE b.isbn13 = :isbn13"
 			+ " AND ub.status = 'AVAILABLE'"
-			+ "	AND ub.loaner_id IS NULL"
-			+ " AND ul.is_active IS TRUE"
+			+ " AND ul.is_active IS TRUE";
+	
+	String NEAREST_RERANK = "SELECT us.name as owner,"
+			+ " c.label as label, c.address as address,"
+			+ " ST_X(c.location) as lon, ST_Y(c.location) as lat,"
+			+ " ST_DistanceSphere(c.location, :userPoint) / 1000.0 as distance"
+			+ " FROM candidates c"
+			+ " JOIN users us ON c.owner_id = us.id";
+	
+	@Query(value = "WITH candidates AS (" + NEAREST_CANDIDATES
+			+ " ORDER BY ul.location <-> :userPoint"
+			+ " LIMIT :candidates)"
+			+ " " + NEAREST_RERANK
+			+ " ORDER BY distance ASC"
+			+ " LIMIT :pageSize", 
+			nativeQuery = true)
+	public List<BookLocationProjection> findNearestPrivateBookLocations(
+				@Param("isbn13") String isbn13, 
+	            @Param("userPoint") Point userPoint,
+	            @Param("candidates") int candidates,
+	            @Param("pageSize") int pageSize
+			);
+	
+	// Radius bound: index-backed ST_DWithin on a degree box wide enough for the radius at that latitude
+	// (a longitude degree is the shorter one), then the exact cut on spherical meters
+	@Query(value = "WITH candidates AS (" + NEAREST_CANDIDATES
+			+ " AND ST_DWithin(ul.location, :userPoint, :radius / 111320.0 / GREATEST(cos(radians(ST_Y(:userPoint))), 0.01))"
+			+ " ORDER BY ul.location <-> :userPoint"
+			+ " LIMIT :candidates)"
+			+ " " + NEAREST_RERANK
+			+ " WHERE ST_DistanceSphere(c.location, :userPoint) <= :radius"
+			+ " ORDER BY distance ASC"
+			+ " LIMIT :pageSize", 
+			nativeQuery = true)
+	public List<BookLocationProjection> findNearestPrivateBookLocationsWithin(
+				@Param("isbn13") String isbn13, 
+	            @Param("userPoint") Point userPoint,
+	            @Param("radius") double radiusMeters,
+	            @Param("candidates") int candidates,
+	            @Param("pageSize") int pageSize
+			);
+	
+	// Owners at given locations (nearest-first ids from LocationIndex): no spatial scan, the ids already bound the area
+	@Query(value = "WITH candidates AS (" + NEAREST_CANDIDATES
+			+ " AND ul.id = ANY(:locationIds))"
+			+ " " + NEAREST_RERANK
 			+ " ORDER BY distance ASC"
 			+ " LIMIT :pageSize", 
 			nativeQuery = true)
-	public List<BookLocationProjection> findPrivateBookLocationsWithDistance(
+	public List<BookLocationProjection> findPrivateBookLocationsAt(
 				@Param("isbn13") String isbn13, 
+				@Param("locationIds") Long[] locationIds,
 	            @Param("userPoint") Point userPoint,
 	            @Param("pageSize") int pageSize
 			);
-}
\ No newline at end of file
+	
+	// Every available owner location in a lon/lat box (geohash cells of the proximity cache); distance left to the caller
+	@Query(value = "SELECT us.name as owner,"
+			+ " ul.label as label, ul.address as address,"
+			+ " ST_X(ul.location) as lon, ST_Y(ul.location) as lat,"
+			+ " CAST(NULL AS double precision) as distance"
+			+ " FROM books b"
+			+ " JOIN user_books ub ON ub.book_id = b.id"
+			+ " JOIN user_locations ul ON ub.location_id = ul.id"
+			+ " JOIN users us ON ub.owner_id = us.id"
+			+ " WHERE b.isbn13 = :isbn13"
+			+ " AND ub.status = 'AVAILABLE'"
+			+ " AND ul.is_active IS TRUE"
+			+ " AND ul.location && ST_MakeEnvelope(:minLon, :minLat, :maxLon, :maxLat, 4326)", 
+			nativeQuery = true)
+	public List<BookLocationProjection> findPrivateBookLocationsInBox(
+				@Param("isbn13") String isbn13,
+				@Param("minLat") double minLat,
+				@Param("minLon") double minLon,
+				@Param("maxLat") double maxLat,
+				@Param("maxLon") double maxLon
+			);
+}
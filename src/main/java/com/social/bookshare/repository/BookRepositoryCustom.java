@@ -0,0 +1,24 @@
+package com.social.bookshare.repository;
+
+import java.util.List;
+
+import com.social.bookshare.domain.Book;
+import com.social.bookshare.domain.Book.Kdc;
+import com.social.bookshare.dto.BookSearchCursor;
+
+public interface BookRepositoryCustom {
+
+	/**
+	 * isbn13 match OR all of the supplied field filters (title, author or publisher required among them).
+	 * Null or blank filters are left out of the SQL, so every filter combination is its own plan.
+	 */
+	public default List<Book> searchBooks(String isbn13, String title, Short volume, Kdc className, String author, String publisher, boolean strictly) {
+		return this.searchBooks(isbn13, title, volume, className, author, publisher, strictly, null, 0);
+	}
+	
+	/**
+	 * Keyset page: rows strictly after the cursor in (title, isbn13) order, at most limit rows (0: unbounded).
+	 */
+	public List<Book> searchBooks(String isbn13, String title, Short volume, Kdc className, String author, String publisher, boolean strictly, 
+			BookSearchCursor after, int limit);
+}
@@ -0,0 +1,83 @@
+package com.social.bookshare.repository;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+
+import com.social.bookshare.domain.Book;
+import com.social.bookshare.domain.Book.Kdc;
+import com.social.bookshare.dto.BookSearchCursor;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class BookRepositoryCustomImpl implements BookRepositoryCustom {
+
+	private static final char ESCAPE = '\\';
+	
+	@PersistenceContext
+	private EntityManager entityManager;
+	
+	@Override
+	public List<Book> searchBooks(String isbn13, String title, Short volume, Kdc className, String author, String publisher, boolean strictly, 
+			BookSearchCursor after, int limit) {
+		HibernateCriteriaBuilder cb = (HibernateCriteriaBuilder) entityManager.getCriteriaBuilder();
+		CriteriaQuery<Book> query = cb.createQuery(Book.class);
+		Root<Book> b = query.from(Book.class);
+		
+		List<Predicate> fields = new ArrayList<>();
+		if (hasText(title)) fields.add(this.matches(cb, b.get("title"), title, strictly));
+		if (hasText(author)) fields.add(this.matches(cb, b.get("author"), author, strictly));
+		if (hasText(publisher)) fields.add(this.matches(cb, b.get("publisher"), publisher, strictly));
+		
+		Predicate byFields = null;
+		if (!fields.isEmpty()) { // volume, className only narrow down a text filter
+			if (volume != null) fields.add(cb.equal(b.get("volume"), volume));
+			if (className != null) fields.add(cb.equal(b.get("className"), className));
+			byFields = cb.and(fields.toArray(Predicate[]::new));
+		}
+		Predicate byIsbn = hasText(isbn13) ? cb.equal(b.get("isbn13"), isbn13) : null;
+		
+		if (byIsbn == null && byFields == null) {
+			return List.of();
+		}
+		
+		Predicate where = (byIsbn == null) ? byFields : (byFields == null) ? byIsbn : cb.or(byIsbn, byFields);
+		
+		if (after != null && !after.isStart()) { // (title, isbn13) > (:title, :isbn13)
+			Expression<String> t = b.get("title");
+			where = cb.and(where, cb.or(
+					cb.greaterThan(t, after.getTitle()),
+					cb.and(cb.equal(t, after.getTitle()), cb.greaterThan(b.get("isbn13"), after.getIsbn13()))));
+		}
+		
+		query.where(where)
+				.orderBy(cb.asc(b.get("title")), cb.asc(b.get("isbn13")));
+		
+		TypedQuery<Book> typedQuery = entityManager.createQuery(query);
+		if (limit > 0) {
+			typedQuery.setMaxResults(limit); // LIMIT in SQL
+		}
+		return typedQuery.getResultList();
+	}
+	
+	// ILIKE on the raw column is served by its trigram GIN index; LOWER(col) LIKE is not
+	private Predicate matches(HibernateCriteriaBuilder cb, Expression<String> column, String value, boolean strictly) {
+		String escaped = escape(value.strip());
+		return cb.ilike(column, strictly ? escaped : "%" + escaped + "%", ESCAPE);
+	}
+	
+	private static String escape(String value) {
+		return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+	}
+	
+	private static boolean hasText(String value) {
+		return value != null && !value.isBlank();
+	}
+}
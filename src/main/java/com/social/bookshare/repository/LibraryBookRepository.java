@@ -0,0 +1,13 @@
+package com.social.bookshare.repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.social.bookshare.domain.LibraryBook;
+
+public interface LibraryBookRepository extends JpaRepository<LibraryBook, String> {
+
+	public Optional<LibraryBook> findByIsbn13AndFetchedAtAfter(String isbn13, LocalDateTime fetchedAfter);
+}
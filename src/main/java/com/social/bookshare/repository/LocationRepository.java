@@ -21,9 +21,37 @@ public interface LocationRepository extends JpaRepository<Location, Long> {
 	
 	public boolean existsByUserIdAndAddress(User user, String address);
 	
+	// Same expression and predicate as idx_user_locations_geography_active, so the partial GIST index is used
 	@Query(value = "SELECT * FROM user_locations l" +
-            " WHERE ST_DWithin(l.location::geography, :userPoint::geography, :distance)" +
-            " AND l.is_active = true", 
+            " WHERE ST_DWithin(l.location::geography, CAST(:userPoint AS geography), :distance)" +
+            " AND l.is_active = true" +
+            " ORDER BY ST_DistanceSphere(l.location, :userPoint)", // Nearest first, as LocationIndex.withinRadius
             nativeQuery = true)
 	public List<Location> findNearbyLocations(@Param("userPoint") Point userPoint, @Param("distance") double distance);
+	
+	// KNN candidates in <-> (planar) order, re-ranked by spherical distance
+	@Query(value = "SELECT c.id FROM ("
+			+ " SELECT l.id, l.location FROM user_locations l"
+			+ " WHERE l.is_active = true"
+			+ " ORDER BY l.location <-> :userPoint"
+			+ " LIMIT :candidates) c"
+			+ " ORDER BY ST_DistanceSphere(c.location, :userPoint)"
+			+ " LIMIT :k", 
+			nativeQuery = true)
+	public List<Long> findNearestLocationIds(@Param("userPoint") Point userPoint, @Param("candidates") int candidates, @Param("k") int k);
+	
+	public interface LocationPointProjection {
+		Long getId();
+		Double getLat();
+		Double getLon();
+	}
+	
+	// LocationIndex bulk load, id keyset
+	@Query(value = "SELECT l.id as id, ST_Y(l.location) as lat, ST_X(l.location) as lon"
+			+ " FROM user_locations l"
+			+ " WHERE l.is_active = true AND l.id > :afterId"
+			+ " ORDER BY l.id"
+			+ " LIMIT :limit", 
+			nativeQuery = true)
+	public List<LocationPointProjection> findActivePointsAfter(@Param("afterId") long afterId, @Param("limit") int limit);
 }
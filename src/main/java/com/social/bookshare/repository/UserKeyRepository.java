@@ -1,8 +1,11 @@
 package com.social.bookshare.repository;
 
+import java.util.Collection;
 import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import com.social.bookshare.domain.User;
 import com.social.bookshare.domain.UserKey;
@@ -11,4 +14,7 @@ public interface UserKeyRepository extends JpaRepository<UserKey, Long> {
 
 	public List<UserKey> findByUser(User user);
 	public List<UserKey> findByUserAndType(User user, String type);
+	
+	@Query(value = "SELECT uk FROM UserKey uk JOIN FETCH uk.user WHERE uk.user.id IN :userIds")
+	public List<UserKey> findByUserIdIn(@Param("userIds") Collection<Long> userIds);
 }
\ No newline at end of file
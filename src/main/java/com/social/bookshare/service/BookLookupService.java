@@ -0,0 +1,18 @@
+package com.social.bookshare.service;
+
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import com.social.bookshare.dto.response.IsbnLookupResult;
+
+public interface BookLookupService {
+
+	/** Resolves every ISBN once, handing each result to sink as soon as it resolves. Returns when all are done. */
+	public default void lookup(List<String> isbn13s, Consumer<IsbnLookupResult> sink) {
+		this.lookup(isbn13s, sink, () -> false);
+	}
+
+	/** As above, but once cancelled reports true, the ISBNs not yet sent upstream are dropped without a result */
+	public void lookup(List<String> isbn13s, Consumer<IsbnLookupResult> sink, BooleanSupplier cancelled);
+}
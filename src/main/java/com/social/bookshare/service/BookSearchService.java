@@ -0,0 +1,9 @@
+package com.social.bookshare.service;
+
+import com.social.bookshare.dto.response.BookSearchPage;
+
+public interface BookSearchService {
+
+	public BookSearchPage searchBooks(String isbn13, String title, Short volume, String className, String author, String publisher, String keywords, 
+			String cursor, int pageSize);
+}
@@ -3,6 +3,7 @@ package com.social.bookshare.service;
 import java.util.List;
 
 import com.social.bookshare.domain.Book;
+import com.social.bookshare.dto.BookSearchCursor;
 import com.social.bookshare.dto.request.BookRegisterRequest;
 import com.social.bookshare.dto.response.BookLocationResponse;
 import com.social.bookshare.dto.response.BookSearchResult;
@@ -11,8 +12,11 @@ public interface BookService {
 
 	public List<BookSearchResult> searchLibraryBooks(String isbn13, String title, String author, String publisher, String keywords, int pageSize);
 	public List<BookSearchResult> searchPrivateBooks(String isbn13, String title, Short volume, String className, String author, String publisher, boolean strictly);
+	public List<BookSearchResult> searchPrivateBooks(String isbn13, String title, Short volume, String className, String author, String publisher, 
+			BookSearchCursor after, int limit);
+	public List<BookSearchResult> searchPrivateBooksRanked(String keywords, int pageSize);
 	
-	public List<BookLocationResponse> getIntegratedBookLocations(String isbn13, double userLat, double userLon, double refDist, int pageSize);
+	public List<BookLocationResponse> getIntegratedBookLocations(String isbn13, double userLat, double userLon, double refDist, Double radius, int pageSize);
 	
 	public Book getBook(String isbn13);
 	
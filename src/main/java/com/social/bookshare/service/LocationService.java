@@ -12,6 +12,11 @@ public interface LocationService {
 	public List<UserLocationReponse> getUserLocations(Long userId);
 	public Location getUserLocation(Long userId, String label);
 	public Location getUserLocation(Long userId, double lat, double lon);
+	
+	// Active location ids, nearest first (in-process index when loaded, PostGIS otherwise)
+	public boolean isLocationIndexReady();
+	public List<Long> findNearbyLocationIds(double userLat, double userLon, double distance);
+	public List<Long> findNearestLocationIds(double userLat, double userLon, int k);
 
 	public Location registerUserLocation(Long userId, LocationRegisterRequest request);
 	public Location registerUserLocation(Long userId, String label, String address, double userLat, double userLon, boolean isActive);
@@ -0,0 +1,15 @@
+package com.social.bookshare.service;
+
+import java.util.List;
+
+import com.social.bookshare.dto.request.ShelfImportItem;
+import com.social.bookshare.dto.response.ShelfImportProgress;
+
+public interface ShelfImportService {
+
+	/** Validates the request, resolves the shelf location and starts the job in the background. Returns the job id. */
+	public String startImport(Long userId, List<ShelfImportItem> items, String label, String address, Double userLat, Double userLon);
+	public String startImport(Long userId, String csv, String label, String address, Double userLat, Double userLon);
+
+	public ShelfImportProgress getProgress(Long userId, String jobId);
+}
@@ -1,9 +1,17 @@
 package com.social.bookshare.service;
 
+import java.util.List;
+import java.util.Map;
+
 import com.social.bookshare.domain.UserKey;
+import com.social.bookshare.dto.DecryptedUserKey;
 import com.social.bookshare.dto.request.UserKeyRegisterRequest;
 
 public interface UserKeyService {
 
 	public UserKey registerKey(Long userId, UserKeyRegisterRequest request) throws Exception;
+	
+	public List<DecryptedUserKey> decryptKeys(Long userId, String password);
+	// Users whose password is wrong (or who do not exist) are left out of the result
+	public Map<Long, List<DecryptedUserKey>> decryptKeys(Map<Long, String> passwordsByUserId);
 }
@@ -15,6 +15,7 @@ import com.social.bookshare.dto.response.TokenResponse;
 import com.social.bookshare.repository.UserRepository;
 import com.social.bookshare.service.AuthService;
 
+import io.jsonwebtoken.Claims;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
@@ -44,11 +45,13 @@ public class AuthServiceImpl implements AuthService {
 	@Override
 	@Transactional
 	public TokenResponse reissueTokens(String refreshToken) {
-		if (!jwtTokenProvider.validateRefreshToken(refreshToken)) {
+		Claims claims = jwtTokenProvider.verifyRefreshToken(refreshToken);
+		
+		if (claims == null) {
 			throw new AccessDeniedException("Refresh Token expired. Log in again, please.");
 		}
 		
-		Long userId = jwtTokenProvider.getUserId(refreshToken);
+		Long userId = jwtTokenProvider.getUserId(claims);
 		
 		RBucket<String> refreshTokenBucket = redissonClient.getBucket(REFRESH_TOKEN_PREFIX + userId);
 	    String savedToken = refreshTokenBucket.get();
@@ -59,6 +62,7 @@ public class AuthServiceImpl implements AuthService {
 	    	// Invalidate all existing refresh tokens for this user by deleting the entry from Redis
 	    	// to force a re-login on all devices.
 	    	refreshTokenBucket.delete();
+	    	jwtTokenProvider.revokeAccessTokens(userId);
 	    	throw new AccessDeniedException("Invalid or revoked token");
 	    }
 
@@ -0,0 +1,93 @@
+package com.social.bookshare.service.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.social.bookshare.domain.Book;
+import com.social.bookshare.dto.response.BookSearchResult;
+import com.social.bookshare.dto.response.IsbnLookupResult;
+import com.social.bookshare.dto.response.IsbnLookupResult.Status;
+import com.social.bookshare.repository.BookRepository;
+import com.social.bookshare.service.BookLookupService;
+import com.social.bookshare.service.BookService;
+
+/**
+ * Bulk ISBN resolution: one ANY(:isbns) query for private books,
+ * then misses from the (cached, mirrored) library lookup with bounded upstream concurrency.
+ */
+@Service
+public class BookLookupServiceImpl implements BookLookupService {
+
+	private final BookRepository bookRepository;
+	private final BookService bookService;
+	private final ExecutorService executor;
+	private final Semaphore libraryPermits; // Shared by all bulk requests
+	
+	public BookLookupServiceImpl(BookRepository bookRepository, BookService bookService,
+			@Qualifier("virtualThreadExecutor") ExecutorService executor,
+			@Value("${book.bulk.libraryConcurrency:8}") int libraryConcurrency) {
+		this.bookRepository = bookRepository;
+		this.bookService = bookService;
+		this.executor = executor;
+		this.libraryPermits = new Semaphore(libraryConcurrency);
+	}
+	
+	@Override
+	public void lookup(List<String> isbn13s, Consumer<IsbnLookupResult> sink, BooleanSupplier cancelled) {
+		Set<String> misses = new LinkedHashSet<>();
+		for (String isbn13 : isbn13s) {
+			if (isbn13 != null && !isbn13.isBlank()) misses.add(isbn13.strip());
+		}
+		
+		// 1. DB private books, one round-trip
+		for (Book book : bookRepository.findAllByIsbn13(misses.toArray(String[]::new))) {
+			misses.remove(book.getIsbn13());
+			sink.accept(new IsbnLookupResult(book.getIsbn13(), Status.FOUND, BookSearchResult.from(book)));
+		}
+		
+		// 2. API libraries, as they resolve
+		List<CompletableFuture<Void>> pending = new ArrayList<>(misses.size());
+		for (String isbn13 : misses) {
+			if (cancelled.getAsBoolean()) break;
+			pending.add(CompletableFuture.runAsync(() -> {
+				IsbnLookupResult result = this.lookupLibrary(isbn13, cancelled);
+				if (result != null) sink.accept(result);
+			}, executor));
+		}
+		CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).join();
+	}
+	
+	// null if cancelled while waiting for a permit
+	private IsbnLookupResult lookupLibrary(String isbn13, BooleanSupplier cancelled) {
+		try {
+			libraryPermits.acquire();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new IsbnLookupResult(isbn13, Status.FAILED, null);
+		}
+		
+		try {
+			if (cancelled.getAsBoolean()) return null; // Client gone; the permit goes to other requests
+
+			List<BookSearchResult> results = bookService.searchLibraryBooks(isbn13, null, null, null, null, 1);
+			return results.isEmpty()
+					? new IsbnLookupResult(isbn13, Status.NOT_FOUND, null)
+					: new IsbnLookupResult(isbn13, Status.FOUND, results.get(0));
+		} catch (RuntimeException e) {
+			return new IsbnLookupResult(isbn13, Status.FAILED, null);
+		} finally {
+			libraryPermits.release();
+		}
+	}
+}
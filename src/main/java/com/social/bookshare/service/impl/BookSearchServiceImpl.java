@@ -0,0 +1,142 @@
+package com.social.bookshare.service.impl;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.social.bookshare.dto.BookSearchCursor;
+import com.social.bookshare.dto.response.BookSearchPage;
+import com.social.bookshare.dto.response.BookSearchResult;
+import com.social.bookshare.service.BookSearchService;
+import com.social.bookshare.service.BookService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Runs the library (data4library.kr) and private (DB) searches at once and merges them by isbn13.
+ * Ranking is deterministic: library results in upstream order, then private results in DB order.
+ */
+@Service
+public class BookSearchServiceImpl implements BookSearchService {
+
+	private static final Logger log = LoggerFactory.getLogger(BookSearchServiceImpl.class);
+	
+	private final BookService bookService;
+	private final ExecutorService executor;
+	private final MeterRegistry meterRegistry;
+	private final Duration timeout;
+	
+	public BookSearchServiceImpl(BookService bookService, 
+			@Qualifier("virtualThreadExecutor") ExecutorService executor, MeterRegistry meterRegistry,
+			@Value("${book.search.timeout:2s}") Duration timeout) {
+		this.bookService = bookService;
+		this.executor = executor;
+		this.meterRegistry = meterRegistry;
+		this.timeout = timeout;
+	}
+	
+	@Override
+	public BookSearchPage searchBooks(String isbn13, String title, Short volume, String className, String author, String publisher, String keywords, 
+			String cursor, int pageSize) {
+		long deadline = System.nanoTime() + timeout.toNanos();
+		boolean ranked = keywords != null && !keywords.isBlank();
+		
+		// Next pages continue private books only (the library API has no keyset)
+		if (cursor != null && !cursor.isBlank()) {
+			if (ranked) {
+				throw new IllegalArgumentException("Cursor: not supported for keyword search");
+			}
+			BookSearchCursor after = BookSearchCursor.decode(cursor);
+			Future<List<BookSearchResult>> privateFuture = executor.submit(() -> 
+					bookService.searchPrivateBooks(isbn13, title, volume, className, author, publisher, after, pageSize + 1));
+			
+			return this.privatePage(new LinkedHashMap<>(), this.await("private", privateFuture, deadline), after, pageSize);
+		}
+		
+		Future<List<BookSearchResult>> libraryFuture = executor.submit(() -> 
+				bookService.searchLibraryBooks(isbn13, title, author, publisher, keywords, pageSize));
+		Future<List<BookSearchResult>> privateFuture = executor.submit(() -> ranked
+				? bookService.searchPrivateBooksRanked(keywords, pageSize) // Relevance ranked, first page only
+				: bookService.searchPrivateBooks(isbn13, title, volume, className, author, publisher, BookSearchCursor.start(), pageSize + 1)); // +1: has next?
+		
+		Map<String, BookSearchResult> integratedMap = new LinkedHashMap<>(); // Keeps ranking order, except duplicates
+		
+		// 1. Libraries first. A full page makes the private search unnecessary.
+		if (this.merge(integratedMap, this.await("library", libraryFuture, deadline), pageSize)) {
+			privateFuture.cancel(false); // Never interrupt: that closes the JDBC socket and Hikari drops the connection
+			return new BookSearchPage(new ArrayList<>(integratedMap.values()), ranked ? null : BookSearchCursor.start().encode());
+		}
+		
+		// 2. Private books fill the rest
+		List<BookSearchResult> privateResults = this.await("private", privateFuture, deadline);
+		if (ranked) {
+			this.merge(integratedMap, privateResults, pageSize);
+			return new BookSearchPage(new ArrayList<>(integratedMap.values()), null);
+		}
+		return this.privatePage(integratedMap, privateResults, BookSearchCursor.start(), pageSize);
+	}
+	
+	// Fills the page with keyset-ordered private results; the cursor points after the last one consumed
+	private BookSearchPage privatePage(Map<String, BookSearchResult> integratedMap, List<BookSearchResult> privateResults, BookSearchCursor after, int pageSize) {
+		int consumed = 0;
+		for (BookSearchResult item : privateResults) {
+			if (integratedMap.size() >= pageSize) { break; }
+			
+			integratedMap.putIfAbsent(item.getIsbn13(), item);
+			after = BookSearchCursor.after(item);
+			consumed++;
+		}
+		
+		String nextCursor = (consumed < privateResults.size()) ? after.encode() : null;
+		return new BookSearchPage(new ArrayList<>(integratedMap.values()), nextCursor);
+	}
+	
+	/** @return true once pageSize is satisfied */
+	private boolean merge(Map<String, BookSearchResult> integratedMap, List<BookSearchResult> results, int pageSize) {
+		for (BookSearchResult item : results) {
+			if (integratedMap.size() >= pageSize) { break; }
+			
+			integratedMap.putIfAbsent(item.getIsbn13(), item);
+		}
+		return integratedMap.size() >= pageSize;
+	}
+	
+	// A source that fails or misses the deadline contributes nothing; the outcome is counted per source.
+	// Abandoned searches run to completion (cancel(false)) rather than being interrupted mid-I/O.
+	private List<BookSearchResult> await(String source, Future<List<BookSearchResult>> future, long deadline) {
+		try {
+			List<BookSearchResult> results = future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+			this.count(source, "success");
+			return results;
+		} catch (TimeoutException e) {
+			future.cancel(false);
+			this.count(source, "timeout");
+			return List.of();
+		} catch (ExecutionException e) {
+			log.warn("Book search: {} source failed", source, e.getCause());
+			this.count(source, "error");
+			return List.of();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			future.cancel(false);
+			return List.of();
+		}
+	}
+	
+	private void count(String source, String outcome) {
+		meterRegistry.counter("book.search.source", "source", source, "outcome", outcome).increment();
+	}
+}
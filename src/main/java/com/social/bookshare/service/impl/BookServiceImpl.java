@@ -1,108 +1,154 @@
 package com.social.bookshare.service.impl;
 
-import java.net.URI;
+import java.time.Duration;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import org.locationtech.jts.geom.Point;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.util.UriComponentsBuilder;
 
+import com.social.bookshare.client.LibraryCatalogClient;
 import com.social.bookshare.domain.Book;
 import com.social.bookshare.domain.Book.Kdc;
+import com.social.bookshare.dto.BookSearchCursor;
 import com.social.bookshare.dto.request.BookRegisterRequest;
 import com.social.bookshare.dto.response.BookLocationResponse;
-import com.social.bookshare.dto.response.BookSearchResponse;
 import com.social.bookshare.dto.response.BookSearchResult;
 import com.social.bookshare.dto.response.LibraryByBookResponse;
+import com.social.bookshare.index.BookCatalogIndex;
 import com.social.bookshare.repository.BookRepository;
 import com.social.bookshare.repository.BookRepository.BookLocationProjection;
 import com.social.bookshare.service.BookService;
+import com.social.bookshare.service.LocationService;
+import com.social.bookshare.utils.BookLocationCache;
 import com.social.bookshare.utils.BookUtils;
 import com.social.bookshare.utils.GeometryUtils;
+import com.social.bookshare.utils.LibraryApiCache;
+import com.social.bookshare.utils.LibraryBookMirror;
+import com.social.bookshare.utils.LibraryRegistry;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
 public class BookServiceImpl implements BookService {
 
+	// <-> orders by planar degrees; fetch a few times the page so the spherical re-rank still sees the true nearest
+	private static final int KNN_OVERSAMPLING = 4;
+	private static final int KNN_MIN_CANDIDATES = 20;
+	private static final int INDEXED_LOCATIONS = 2000; // Location ids bound into one ANY(...) at most
+
 	private final BookRepository bookRepository;
 	private final GeometryUtils geometryUtils;
-    private final RestTemplate restTemplate;
+    private final LibraryCatalogClient libraryCatalogClient;
+    private final LibraryApiCache libraryApiCache;
+    private final BookCatalogIndex bookCatalogIndex;
+    private final LibraryBookMirror libraryBookMirror;
+    private final LibraryRegistry libraryRegistry;
+    private final LocationService locationService;
+    private final BookLocationCache bookLocationCache;
+    private final ExecutorService executor;
+    private final MeterRegistry meterRegistry;
     
-    public BookServiceImpl(BookRepository bookRepository, GeometryUtils geometryUtils, RestTemplate restTemplate) {
+    public BookServiceImpl(BookRepository bookRepository, GeometryUtils geometryUtils, LibraryCatalogClient libraryCatalogClient, 
+    		LibraryApiCache libraryApiCache, BookCatalogIndex bookCatalogIndex, 
+    		LibraryBookMirror libraryBookMirror, LibraryRegistry libraryRegistry, LocationService locationService, 
+    		BookLocationCache bookLocationCache, 
+    		@Qualifier("virtualThreadExecutor") ExecutorService executor, MeterRegistry meterRegistry) {
     	this.bookRepository = bookRepository;
     	this.geometryUtils = geometryUtils;
-    	this.restTemplate = restTemplate;
+    	this.libraryCatalogClient = libraryCatalogClient;
+    	this.libraryApiCache = libraryApiCache;
+    	this.bookCatalogIndex = bookCatalogIndex;
+    	this.libraryBookMirror = libraryBookMirror;
+    	this.libraryRegistry = libraryRegistry;
+    	this.locationService = locationService;
+    	this.bookLocationCache = bookLocationCache;
+    	this.executor = executor;
+    	this.meterRegistry = meterRegistry;
     }
 
-    @Value("${data4library.api.url}")
-    private String apiUrl;
-
-    @Value("${data4library.api.key}")
-    private String authKey;
+    @Value("${book.locations.privateTimeout:1s}")
+    private Duration privateLocationsTimeout;
+    
+    @Value("${book.locations.libraryTimeout:2s}")
+    private Duration libraryLocationsTimeout;
+    
+    @Value("${book.locations.libraryCandidates:200}")
+    private int libraryCandidates;
     
     @Override
     public List<BookSearchResult> searchLibraryBooks(String isbn13, String title, String author, String publisher, String keywords, int pageSize) {
-    	URI uri = UriComponentsBuilder.fromUriString(apiUrl + "/srchBooks")
-                .queryParam("authKey", authKey)
-                .queryParam("title", Optional.ofNullable(title))
-                .queryParam("author", Optional.ofNullable(author))
-                .queryParam("isbn13", Optional.ofNullable(isbn13))
-                .queryParam("keyword", Optional.ofNullable(keywords)) // Trust conversion on client
-                .queryParam("publisher", Optional.ofNullable(publisher))
-                .queryParam("pageSize", pageSize)
-                .queryParam("format", "json")
-                .build(true).toUri();
-
-        BookSearchResponse response = restTemplate.getForObject(uri, BookSearchResponse.class);
-
-        if (response == null || response.getResponse() == null || response.getResponse().getDocs() == null) {
-            return Collections.emptyList();
-        }
-
-        return response.getResponse().getDocs().stream()
-                .<BookSearchResult>map(item -> {
-                    BookSearchResponse.DocInfo doc = item.getDoc();
-                    return BookSearchResult.builder()
-                            .title(doc.getBookName())
-                            .volume(doc.getVolume())
-                            .className(doc.getClassName())
-                            .author(doc.getAuthors())
-                            .publisher(doc.getPublisher())
-                            .isbn13(doc.getIsbn13())
-                            .image(doc.getBookImageURL())
-                            .fromLibrary(true)
-                            .build();
-                }).collect(Collectors.toList());
+    	String cacheKey = LibraryApiCache.cacheKey("srchBooks", 
+    			"isbn13", isbn13, "title", title, "author", author, "publisher", publisher, "keyword", keywords, "pageSize", pageSize);
+    	
+    	// ISBN lookups (e.g. registration) from the local mirror while fresh
+    	if (isbn13 != null && Stream.of(title, author, publisher, keywords).allMatch(s -> s == null || s.isBlank())) {
+    		Optional<BookSearchResult> mirrored = libraryBookMirror.findFresh(isbn13);
+    		if (mirrored.isPresent()) {
+    			return List.of(mirrored.get());
+    		}
+    	}
+    	
+    	return libraryApiCache.get(cacheKey, () -> {
+    		List<BookSearchResult> results = libraryCatalogClient.searchBooks(isbn13, title, author, publisher, keywords, pageSize).join();
+    		libraryBookMirror.offer(results);
+    		return results;
+    	});
     }
-
+    
 	@Override
 	@Transactional(readOnly = true)
 	public List<BookSearchResult> searchPrivateBooks(String isbn13, String title, Short volume, String className, String author, String publisher, boolean strictly) {
-		if (isbn13 == null) {
-			if (volume == null) { volume = 1; }
+		return this.searchPrivateBooks(isbn13, title, volume, className, author, publisher, strictly, null, 0);
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<BookSearchResult> searchPrivateBooks(String isbn13, String title, Short volume, String className, String author, String publisher, 
+			BookSearchCursor after, int limit) {
+		return this.searchPrivateBooks(isbn13, title, volume, className, author, publisher, false, after, limit);
+	}
+	
+	private List<BookSearchResult> searchPrivateBooks(String isbn13, String title, Short volume, String className, String author, String publisher, 
+			boolean strictly, BookSearchCursor after, int limit) {
+		if (isbn13 == null && Stream.of(title, author, publisher).noneMatch(s -> s == null || s.isBlank())) {
 			// This is for informal books. But not matter, even if book has formal ISBN...
-			isbn13 = BookUtils.generateBookHash(title, volume, author, publisher);
+			isbn13 = BookUtils.generateBookHash(title, (volume == null) ? 1 : volume, author, publisher);
 		}
+		Kdc kdc = (className == null || className.isBlank()) ? null : Kdc.valueOf(className.toUpperCase());
 		
-		if (strictly) {
-			return bookRepository.searchPrivateBooksStrictly(isbn13, title, volume, Kdc.valueOf(className.toUpperCase()), author, publisher);
-		} else {
-			return bookRepository.searchPrivateBooks(isbn13, title, volume, Kdc.valueOf(className.toUpperCase()), author, publisher);
-		}
+		return bookRepository.searchBooks(isbn13, title, volume, kdc, author, publisher, strictly, after, limit).stream()
+				.map(BookSearchResult::from)
+				.collect(Collectors.toList());
 	}
     
     @Override
     @Transactional(readOnly = true)
-	public List<BookLocationResponse> getIntegratedBookLocations(String isbn13, double userLat, double userLon, double refDist, int pageSize) {
+    public List<BookSearchResult> searchPrivateBooksRanked(String keywords, int pageSize) {
+    	if (bookCatalogIndex.isReady()) {
+    		return bookCatalogIndex.search(keywords, pageSize); // In-process, no DB round-trip
+    	}
+    	return bookRepository.searchPrivateBooksRanked(keywords.strip(), pageSize).stream()
+    			.map(BookSearchResult::from)
+    			.collect(Collectors.toList());
+    }
+    
+    @Override
+	public List<BookLocationResponse> getIntegratedBookLocations(String isbn13, double userLat, double userLon, double refDist, Double radius, int pageSize) {
     	if (pageSize > 20) {
     		throw new IllegalArgumentException("Page size: too many to load");
     	}
@@ -111,10 +157,14 @@ public class BookServiceImpl implements BookService {
 
         Point userLocation = geometryUtils.createPoint(userLon, userLat);
         
-        // 1. DB private books (PostGIS)
-        List<BookLocationProjection> dbResults = bookRepository.findPrivateBookLocationsWithDistance(isbn13, userLocation, pageSize/2);
+        // Both sources at once, each bounded by its own timeout (empty on timeout or failure)
+        CompletableFuture<List<BookLocationProjection>> privateFuture = this.fetchSource("private", privateLocationsTimeout, 
+        		() -> this.findNearestPrivateBookLocations(isbn13, userLat, userLon, userLocation, radius, pageSize/2));
+        CompletableFuture<List<LibraryRegistry.Library>> libraryFuture = this.fetchSource("library", libraryLocationsTimeout, 
+        		() -> this.findLibrariesByIsbn(isbn13, libraryCandidates));
         
-        for (BookLocationProjection dbItem : dbResults) {
+        // 1. DB private books (PostGIS)
+        for (BookLocationProjection dbItem : privateFuture.join()) {
         	double distance = dbItem.getDistance();
         	
         	privateResponses.add(BookLocationResponse.builder()
@@ -129,23 +179,34 @@ public class BookServiceImpl implements BookService {
         			.build());
         }
         
-        // 2. API libraries
-        List<LibraryByBookResponse.LibInfo> apiLibraries = this.findLibrariesByIsbn(isbn13, pageSize-privateResponses.size());
+        // 2. API libraries: every candidate ranked in one batch distance pass
+        List<LibraryRegistry.Library> libs = libraryFuture.join();
+        double[] libLats = new double[libs.size()];
+        double[] libLons = new double[libs.size()];
+        double[] libDistances = new double[libs.size()];
         
-        for (LibraryByBookResponse.LibInfo lib : apiLibraries) {
-        	double libLat = Double.parseDouble(lib.getLatitude());
-            double libLon = Double.parseDouble(lib.getLongitude());
-            
-            double distance = geometryUtils.calculateDistance(libLon, libLat, userLon, userLat);
+        for (int i = 0; i < libs.size(); i++) {
+        	libLats[i] = libs.get(i).getLat(); // Parsed once, in the registry
+        	libLons[i] = libs.get(i).getLon();
+        }
+        geometryUtils.calculateDistances(userLat, userLon, libLats, libLons, libDistances);
+        
+        for (int i = 0; i < libs.size(); i++) {
+        	double distance = libDistances[i] / 1000.0; // kilometer, as private owners
+        	if (Double.isNaN(distance) || (radius != null && distance > radius)) {
+        		continue; // No coordinates upstream, or out of range
+        	}
+        	LibraryRegistry.Library lib = libs.get(i);
             
             libraryResponses.add(BookLocationResponse.builder()
 //            		.type("LIBRARY")
             		.owner(null)
-            		.label(lib.getLibName())
+            		.libCode(lib.getCode())
+            		.label(lib.getName())
             		.address(lib.getAddress())
             		.distance(Math.round(distance * 100.0) / 100.0)
-            		.lat(libLon)
-            		.lon(libLat)
+            		.lat(libLats[i])
+            		.lon(libLons[i])
             		.isHighlight(distance <= refDist)
             		.build());
         }
@@ -153,7 +214,9 @@ public class BookServiceImpl implements BookService {
         privateResponses.sort(BookLocationResponse.DISTANCE_COMPARATOR);
         libraryResponses.sort(BookLocationResponse.DISTANCE_COMPARATOR);
         
+        // Libraries fill the rest of the page
         return Stream.concat(privateResponses.stream(), libraryResponses.stream())
+        		.limit(pageSize)
         		.collect(Collectors.toList());
 	}
     
@@ -182,26 +245,88 @@ public class BookServiceImpl implements BookService {
 				.imageURL(request.getImageUrl())
 				.build();
 		
-		return bookRepository.save(book);
+		Book saved = bookRepository.save(book);
+		bookCatalogIndex.index(saved);
+		
+		return saved;
     }
     
-    private List<LibraryByBookResponse.LibInfo> findLibrariesByIsbn(String isbn13, int pageSize) {
-        URI uri = UriComponentsBuilder.fromUriString(apiUrl + "/libSrchByBook")
-                .queryParam("authKey", authKey)
-                .queryParam("isbn13", isbn13)
-                .queryParam("pageSize", pageSize)
-                .queryParam("format", "json")
-                .build(true)
-                .toUri();
-
-        LibraryByBookResponse response = restTemplate.getForObject(uri, LibraryByBookResponse.class);
-
-        if (response == null || response.getResponse() == null || response.getResponse().getLibs() == null) {
-            return Collections.emptyList();
-        }
-
-        return response.getResponse().getLibs().stream()
-                .map(LibraryByBookResponse.Lib::getLib)
-                .collect(Collectors.toList());
+    private List<BookLocationProjection> findNearestPrivateBookLocations(String isbn13, double userLat, double userLon, 
+    		Point userLocation, Double radius, int pageSize) {
+    	// Neighbourhood cells first; the database only when they cannot settle the page
+    	Optional<List<BookLocationProjection>> cached = bookLocationCache.findNearest(isbn13, userLat, userLon, 
+    			radius != null ? radius * 1000 : null, pageSize);
+    	if (cached.isPresent()) {
+    		return cached.get();
+    	}
+    	if (locationService.isLocationIndexReady()) {
+    		Optional<List<BookLocationProjection>> indexed = this.findIndexedPrivateBookLocations(isbn13, userLat, userLon, userLocation, radius, pageSize);
+    		if (indexed.isPresent()) {
+    			return indexed.get();
+    		}
+    	}
+    	
+    	int candidates = Math.max(pageSize * KNN_OVERSAMPLING, KNN_MIN_CANDIDATES);
+    	
+    	return radius == null
+    			? bookRepository.findNearestPrivateBookLocations(isbn13, userLocation, candidates, pageSize)
+    			: bookRepository.findNearestPrivateBookLocationsWithin(isbn13, userLocation, radius * 1000, candidates, pageSize);
+    }
+    
+    // Nearest location ids from the in-process index, then only the books at those locations
+    private Optional<List<BookLocationProjection>> findIndexedPrivateBookLocations(String isbn13, double userLat, double userLon, 
+    		Point userLocation, Double radius, int pageSize) {
+    	List<Long> locationIds = (radius != null)
+    			? locationService.findNearbyLocationIds(userLat, userLon, radius * 1000)
+    			: locationService.findNearestLocationIds(userLat, userLon, INDEXED_LOCATIONS);
+    	if (locationIds.isEmpty()) {
+    		return Optional.empty();
+    	}
+    	if (locationIds.size() > INDEXED_LOCATIONS) {
+    		return Optional.empty(); // Wide radius over a dense area: the KNN query is cheaper
+    	}
+    	
+    	List<BookLocationProjection> found = bookRepository.findPrivateBookLocationsAt(isbn13, locationIds.toArray(Long[]::new), userLocation, pageSize);
+    	
+    	// Only a full page is taken: the grid may lag other instances' changes, so a short page could be missing owners
+    	return (found.size() >= pageSize) ? Optional.of(found) : Optional.empty();
+    }
+    
+    private <T> CompletableFuture<List<T>> fetchSource(String source, Duration timeout, Supplier<List<T>> supplier) {
+    	Timer.Sample sample = Timer.start(meterRegistry);
+    	
+    	return CompletableFuture.supplyAsync(supplier, executor)
+    			.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+    			.handle((result, e) -> {
+    				Throwable cause = (e instanceof CompletionException) ? e.getCause() : e;
+    				String outcome = (cause == null) ? "success" : (cause instanceof TimeoutException) ? "timeout" : "error";
+    				
+    				sample.stop(meterRegistry.timer("book.locations.source", "source", source, "outcome", outcome));
+    				return (cause == null) ? result : List.<T>of(); // Partial result
+    			});
+    }
+    
+    // Per ISBN only the library codes are cached; names and coordinates come from the registry
+    private List<LibraryRegistry.Library> findLibrariesByIsbn(String isbn13, int pageSize) {
+    	String cacheKey = LibraryApiCache.cacheKey("libSrchByBook:codes", "isbn13", isbn13, "pageSize", pageSize);
+    	
+    	Supplier<List<String>> loader = () -> {
+    		List<LibraryByBookResponse.LibInfo> libs = libraryCatalogClient.findLibrariesByIsbn(isbn13, pageSize).join();
+    		libraryRegistry.register(libs);
+    		
+    		return libs.stream()
+    				.map(LibraryByBookResponse.LibInfo::getLibCode)
+    				.filter(code -> code != null && !code.isBlank())
+    				.map(String::strip)
+    				.collect(Collectors.toList());
+    	};
+    	
+    	Optional<List<LibraryRegistry.Library>> resolved = libraryRegistry.resolve(libraryApiCache.get(cacheKey, loader));
+    	if (resolved.isPresent()) {
+    		return resolved.get();
+    	}
+    	// Codes cached by another instance (or before a restart) this registry has not seen yet: a miss
+    	libraryApiCache.evict(cacheKey);
+    	return libraryRegistry.resolve(libraryApiCache.get(cacheKey, loader)).orElse(List.of());
     }
 }
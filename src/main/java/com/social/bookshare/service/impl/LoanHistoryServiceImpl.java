@@ -23,6 +23,7 @@ import com.social.bookshare.dto.request.LoanRequest;
 import com.social.bookshare.repository.LoanHistoryRepository;
 import com.social.bookshare.service.LoanHistoryService;
 import com.social.bookshare.service.NotificationService;
+import com.social.bookshare.utils.BookLocationCache;
 import com.social.bookshare.utils.EntityMapper;
 
 import jakarta.persistence.EntityNotFoundException;
@@ -39,16 +40,18 @@ public class LoanHistoryServiceImpl implements LoanHistoryService {
     private final NotificationService notificationService;
     private final EntityMapper entityMapper;
     private final RedissonClient redissonClient;
+    private final BookLocationCache bookLocationCache;
     
     private static final String PENDING_LOAN_PREFIX = "LOAN_HISTORY:LOAN:REQUEST:";
     private static final String RLOCK_PREFIX = "LOAN_HISTORY:LOCK:USERBOOK:";
 	
 	public LoanHistoryServiceImpl(LoanHistoryRepository loanHistoryRepository, NotificationService notificatinoService, 
-			EntityMapper entityMapper, RedissonClient redissonClient) {
+			EntityMapper entityMapper, RedissonClient redissonClient, BookLocationCache bookLocationCache) {
 		this.loanHistoryRepository = loanHistoryRepository;
 		this.notificationService = notificatinoService;
 		this.entityMapper = entityMapper;
 		this.redissonClient = redissonClient;
+		this.bookLocationCache = bookLocationCache;
 	}
 	
 	@Override
@@ -104,6 +107,7 @@ public class LoanHistoryServiceImpl implements LoanHistoryService {
 			}
 			// Approve loan
 			userBook.approveLoan();
+			bookLocationCache.evict(userBook.getIsbn13(), userBook.getLocation().getLocation()); // No longer available
 			
 			LoanHistory history = LoanHistory.builder()
 	                .userBook(userBook)
@@ -198,6 +202,7 @@ public class LoanHistoryServiceImpl implements LoanHistoryService {
 			throw new AccessDeniedException("Only owner can void the contract.");
 		}
 		userBook.voidLoan();
+		bookLocationCache.evict(userBook.getIsbn13(), userBook.getLocation().getLocation()); // Available again
 		
 		loanHistoryRepository.findLoanHistoryApproved(userBook.getId(), loaner.getId())
 				.orElseThrow(() -> new EntityNotFoundException("Loan history not found"))
@@ -233,6 +238,7 @@ public class LoanHistoryServiceImpl implements LoanHistoryService {
 			throw new AccessDeniedException("Only owner can approve return.");
 		}
 		userBook.confirmReturn();
+		bookLocationCache.evict(userBook.getIsbn13(), userBook.getLocation().getLocation());
 		
 		loanHistoryRepository.findLoanHistoryApproved(userBook.getId(), loaner.getId())
 				.orElseThrow(() -> new EntityNotFoundException("Loan history not found"))
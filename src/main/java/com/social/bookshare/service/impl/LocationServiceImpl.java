@@ -13,9 +13,12 @@ import com.social.bookshare.domain.User;
 import com.social.bookshare.dto.request.LocationRegisterRequest;
 import com.social.bookshare.dto.request.LocationUpdateRequest;
 import com.social.bookshare.dto.response.UserLocationReponse;
+import com.social.bookshare.index.LocationGrid;
+import com.social.bookshare.index.LocationIndex;
 import com.social.bookshare.repository.LocationRepository;
 import com.social.bookshare.repository.UserBookRepository;
 import com.social.bookshare.service.LocationService;
+import com.social.bookshare.utils.BookLocationCache;
 import com.social.bookshare.utils.EntityMapper;
 import com.social.bookshare.utils.GeometryUtils;
 import com.social.bookshare.utils.SecurityUtils;
@@ -29,13 +32,17 @@ public class LocationServiceImpl implements LocationService {
 	private final UserBookRepository userBookRepository;
 	private final GeometryUtils geometryUtils;
 	private final EntityMapper entityMapper;
+	private final BookLocationCache bookLocationCache;
+	private final LocationIndex locationIndex;
     
     public LocationServiceImpl(LocationRepository locationRepository, UserBookRepository userBookRepository, 
-    		GeometryUtils geometryUtils, EntityMapper entityMapper) {
+    		GeometryUtils geometryUtils, EntityMapper entityMapper, BookLocationCache bookLocationCache, LocationIndex locationIndex) {
     	this.locationRepository = locationRepository;
     	this.userBookRepository = userBookRepository;
     	this.geometryUtils = geometryUtils;
     	this.entityMapper = entityMapper;
+    	this.bookLocationCache = bookLocationCache;
+    	this.locationIndex = locationIndex;
     }
     
     @Override
@@ -68,6 +75,35 @@ public class LocationServiceImpl implements LocationService {
 		return locationRepository.findByUserAndLocation(entityMapper.getReference(User.class, userId), location)
 				.orElseThrow(() -> new EntityNotFoundException("Location not found"));
 	}
+	
+	@Override
+	public boolean isLocationIndexReady() {
+		return locationIndex.isReady();
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<Long> findNearbyLocationIds(double userLat, double userLon, double distance) {
+		if (locationIndex.isReady()) { // In-process, no DB round-trip
+			return locationIndex.withinRadius(userLat, userLon, distance).stream()
+					.map(LocationGrid.Hit::getId)
+					.collect(Collectors.toList());
+		}
+		return locationRepository.findNearbyLocations(geometryUtils.createPoint(userLon, userLat), distance).stream()
+				.map(Location::getId)
+				.collect(Collectors.toList());
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<Long> findNearestLocationIds(double userLat, double userLon, int k) {
+		if (locationIndex.isReady()) {
+			return locationIndex.nearest(userLat, userLon, k).stream()
+					.map(LocationGrid.Hit::getId)
+					.collect(Collectors.toList());
+		}
+		return locationRepository.findNearestLocationIds(geometryUtils.createPoint(userLon, userLat), Math.max(k * 4, 20), k);
+	}
     
     @Override
     @Transactional
@@ -111,6 +147,7 @@ public class LocationServiceImpl implements LocationService {
     	
 //    	location.updateLocation(request.getLabel(), request.getUserLat(), request.getUserLon(), request.getIsActive());
     	location.updateLocation(request.getLabel(), request.getIsActive());
+    	bookLocationCache.evictCell(location.getLocation()); // Toggled: every book here may appear or vanish
     }
 
 	@Override
@@ -126,5 +163,6 @@ public class LocationServiceImpl implements LocationService {
     	}
 		
 		locationRepository.delete(location);
+		bookLocationCache.evictCell(location.getLocation());
 	}
 }
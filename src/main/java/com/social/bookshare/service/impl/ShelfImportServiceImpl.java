@@ -0,0 +1,340 @@
+package com.social.bookshare.service.impl;
+
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+
+import org.locationtech.jts.geom.Point;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.social.bookshare.domain.Book;
+import com.social.bookshare.domain.Location;
+import com.social.bookshare.domain.UserBook;
+import com.social.bookshare.dto.request.ShelfImportItem;
+import com.social.bookshare.dto.response.BookSearchResult;
+import com.social.bookshare.dto.response.IsbnLookupResult;
+import com.social.bookshare.dto.response.ShelfImportProgress;
+import com.social.bookshare.index.BookCatalogIndex;
+import com.social.bookshare.repository.BookRepository;
+import com.social.bookshare.service.BookLookupService;
+import com.social.bookshare.service.LocationService;
+import com.social.bookshare.service.ShelfImportService;
+import com.social.bookshare.utils.BookLocationCache;
+import com.social.bookshare.utils.BookUtils;
+import com.social.bookshare.utils.CsvUtils;
+
+import jakarta.persistence.EntityNotFoundException;
+
+/**
+ * Bulk shelf import: the one-book request/confirm flow, done for a whole file in a background job.
+ * Rows are deduped by isbn13 (or book hash), known books resolved in one query, the rest looked up or taken from the row,
+ * then books and user_books are written with JDBC batches. Progress is kept in Redis per user and job.
+ */
+@Service
+public class ShelfImportServiceImpl implements ShelfImportService {
+
+	private static final String PROGRESS_PREFIX = "USER_BOOK:IMPORT:";
+	private static final Duration PROGRESS_TTL = Duration.ofDays(1);
+
+	// Ids come in blocks from the pooled sequences (INCREMENT BY = allocationSize of the entities), as Hibernate takes them
+	private static final int ID_ALLOCATION_SIZE = 50;
+	private static final String INSERT_BOOK_SQL = "INSERT INTO books"
+			+ " (id, isbn13, title, volume, class_nm, author, publisher, image_url)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+			+ " ON CONFLICT (isbn13) DO NOTHING"; // Registered meanwhile by someone else
+	private static final String INSERT_USER_BOOK_SQL = "INSERT INTO user_books"
+			+ " (id, owner_id, location_id, book_id, comment, status, created_at, updated_at)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+	private static final String OWNED_BOOKS_SQL = "SELECT book_id FROM user_books WHERE owner_id = ? AND book_id = ANY(?)";
+
+	private final JdbcTemplate jdbcTemplate;
+	private final TransactionTemplate transactionTemplate;
+	private final BookRepository bookRepository;
+	private final BookLookupService bookLookupService;
+	private final BookCatalogIndex bookCatalogIndex;
+	private final LocationService locationService;
+	private final BookLocationCache bookLocationCache;
+	private final RedissonClient redissonClient;
+	private final ExecutorService executor;
+	private final int maxItems;
+	private final int batchSize;
+
+	public ShelfImportServiceImpl(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+			BookRepository bookRepository, BookLookupService bookLookupService, BookCatalogIndex bookCatalogIndex,
+			LocationService locationService, BookLocationCache bookLocationCache, RedissonClient redissonClient,
+			@Qualifier("virtualThreadExecutor") ExecutorService executor,
+			@Value("${user-book.import.maxItems:2000}") int maxItems,
+			@Value("${user-book.import.batchSize:500}") int batchSize) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.transactionTemplate = new TransactionTemplate(transactionManager);
+		this.bookRepository = bookRepository;
+		this.bookLookupService = bookLookupService;
+		this.bookCatalogIndex = bookCatalogIndex;
+		this.locationService = locationService;
+		this.bookLocationCache = bookLocationCache;
+		this.redissonClient = redissonClient;
+		this.executor = executor;
+		this.maxItems = maxItems;
+		this.batchSize = batchSize;
+	}
+
+	@Override
+	public String startImport(Long userId, String csv, String label, String address, Double userLat, Double userLon) {
+		List<ShelfImportItem> items = CsvUtils.parse(csv).stream()
+				.map(row -> new ShelfImportItem(
+						row.get("isbn13") != null ? row.get("isbn13") : row.get("isbn"),
+						row.get("title"),
+						row.get("volume") != null ? Short.valueOf(row.get("volume")) : null,
+						row.get("class_nm"),
+						row.get("author"),
+						row.get("publisher"),
+						row.get("image_url"),
+						row.get("comment")))
+				.toList();
+
+		return this.startImport(userId, items, label, address, userLat, userLon);
+	}
+
+	@Override
+	public String startImport(Long userId, List<ShelfImportItem> items, String label, String address, Double userLat, Double userLon) {
+		// request must have either lon-lat pair or label, like a single registration
+		boolean hasLabel = label != null && !label.isBlank();
+		boolean hasLatLon = userLat != null && userLon != null;
+
+		if (items == null || items.isEmpty() || items.size() > maxItems || hasLabel == hasLatLon) {
+			throw new IllegalArgumentException("Invalid import request");
+		}
+
+		// The whole shelf goes to one location, resolved before the job so a bad label fails the request
+		Location location = hasLabel
+				? locationService.getUserLocation(userId, label)
+				: locationService.registerUserLocation(userId, null, address, userLat, userLon, true);
+
+		String jobId = UUID.randomUUID().toString();
+		ShelfImportProgress progress = new ShelfImportProgress(jobId, items.size());
+		RBucket<ShelfImportProgress> progressBucket = redissonClient.getBucket(PROGRESS_PREFIX + userId + ":" + jobId);
+		progressBucket.set(progress, PROGRESS_TTL);
+
+		List<ShelfImportItem> rows = new ArrayList<>(items);
+		executor.execute(() -> this.runImport(progressBucket, progress, userId, location.getId(), location.getLocation(), rows));
+
+		return jobId;
+	}
+
+	@Override
+	public ShelfImportProgress getProgress(Long userId, String jobId) {
+		ShelfImportProgress progress = redissonClient.<ShelfImportProgress>getBucket(PROGRESS_PREFIX + userId + ":" + jobId).get();
+		if (progress == null) {
+			throw new EntityNotFoundException("Import job not found");
+		}
+		return progress;
+	}
+
+	private void runImport(RBucket<ShelfImportProgress> progressBucket, ShelfImportProgress progress,
+			Long userId, Long locationId, Point locationPoint, List<ShelfImportItem> items) {
+		progress.start();
+		progressBucket.set(progress, PROGRESS_TTL);
+
+		try {
+			// 1. Dedup rows by isbn13, or by book hash for books without one
+			Map<String, ShelfImportItem> rows = new LinkedHashMap<>();
+			for (ShelfImportItem item : items) {
+				String key = this.bookKey(item);
+				if (key == null) {
+					progress.addFailed(1);
+				} else if (rows.putIfAbsent(key, item) != null) {
+					progress.addSkipped(1);
+				}
+			}
+
+			// 2. Books already registered, one round-trip
+			Map<String, Long> bookIds = new HashMap<>();
+			for (Book book : this.findBooks(rows.keySet())) {
+				bookIds.put(book.getIsbn13(), book.getId());
+			}
+
+			// 3. New books: details from the row, or the library lookup for ISBN-only rows
+			Map<String, BookSearchResult> newBooks = new LinkedHashMap<>();
+			List<String> lookups = new ArrayList<>();
+
+			Iterator<Map.Entry<String, ShelfImportItem>> it = rows.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<String, ShelfImportItem> row = it.next();
+				if (bookIds.containsKey(row.getKey())) continue;
+
+				if (row.getValue().hasDetails()) {
+					try {
+						newBooks.put(row.getKey(), this.toBook(row.getKey(), row.getValue()));
+					} catch (IllegalArgumentException e) { // Unknown class_nm
+						it.remove();
+						progress.addFailed(1);
+					}
+				} else {
+					lookups.add(row.getKey());
+				}
+			}
+
+			Queue<IsbnLookupResult> lookedUp = new ConcurrentLinkedQueue<>();
+			bookLookupService.lookup(lookups, lookedUp::add);
+			for (IsbnLookupResult result : lookedUp) {
+				if (result.getStatus() == IsbnLookupResult.Status.FOUND) {
+					newBooks.put(result.getIsbn13(), result.getBook());
+				} else {
+					rows.remove(result.getIsbn13());
+					progress.addFailed(1);
+				}
+			}
+			progressBucket.set(progress, PROGRESS_TTL);
+
+			// 4. books, then their ids by the isbn13 actually stored
+			this.insertBooks(newBooks.values());
+
+			Map<String, Book> inserted = new HashMap<>();
+			for (Book book : this.findBooks(newBooks.values().stream().map(BookSearchResult::getIsbn13).toList())) {
+				inserted.put(book.getIsbn13(), book);
+				bookCatalogIndex.index(book);
+			}
+			newBooks.forEach((key, book) -> {
+				Book saved = inserted.get(book.getIsbn13());
+				if (saved != null) bookIds.put(key, saved.getId());
+			});
+
+			// 5. user_books, skipping books already on the user's shelf
+			Set<Long> owned = this.findOwnedBookIds(userId, bookIds.values());
+			Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+			List<Object[]> userBooks = new ArrayList<>();
+
+			for (Map.Entry<String, ShelfImportItem> row : rows.entrySet()) {
+				Long bookId = bookIds.get(row.getKey());
+				if (bookId == null) {
+					progress.addFailed(1);
+				} else if (!owned.add(bookId)) {
+					progress.addSkipped(1);
+				} else {
+					userBooks.add(new Object[] {
+							null, userId, locationId, bookId, row.getValue().getComment(), UserBook.Status.AVAILABLE.name(), now, now });
+				}
+			}
+			long[] userBookIds = this.allocateIds("user_books_seq", userBooks.size());
+			for (int i = 0; i < userBooks.size(); i++) {
+				userBooks.get(i)[0] = userBookIds[i];
+			}
+			progressBucket.set(progress, PROGRESS_TTL);
+
+			for (int from = 0; from < userBooks.size(); from += batchSize) {
+				List<Object[]> batch = userBooks.subList(from, Math.min(from + batchSize, userBooks.size()));
+				transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_USER_BOOK_SQL, batch));
+
+				progress.addImported(batch.size());
+				progressBucket.set(progress, PROGRESS_TTL);
+			}
+			if (!userBooks.isEmpty()) {
+				bookLocationCache.evictCell(locationPoint); // Many ISBNs at one place
+			}
+			progress.done();
+		} catch (RuntimeException e) {
+			progress.fail(e.getMessage());
+		}
+		progressBucket.set(progress, PROGRESS_TTL);
+	}
+
+	private String bookKey(ShelfImportItem item) {
+		if (item == null) {
+			return null;
+		}
+		if (item.hasIsbn()) {
+			return BookUtils.toIsbn13(item.getIsbn13()); // ISBN-10 exports are converted, not rejected
+		}
+		if (!item.hasDetails()) {
+			return null;
+		}
+		return BookUtils.generateBookHash(item.getTitle(), volumeOf(item), item.getAuthor(), item.getPublisher());
+	}
+
+	private BookSearchResult toBook(String isbn13, ShelfImportItem item) {
+		return BookSearchResult.builder()
+				.isbn13(isbn13)
+				.title(item.getTitle().strip())
+				.volume(volumeOf(item))
+				.className(item.getClassName().strip())
+				.author(item.getAuthor().strip())
+				.publisher(item.getPublisher().strip())
+				.image(item.getImageUrl())
+				.fromLibrary(false)
+				.build();
+	}
+
+	private static short volumeOf(ShelfImportItem item) {
+		return item.getVolume() != null ? item.getVolume() : (short) 1;
+	}
+
+	private List<Book> findBooks(Collection<String> isbn13s) {
+		return isbn13s.isEmpty() ? List.of() : bookRepository.findAllByIsbn13(isbn13s.toArray(String[]::new));
+	}
+
+	private void insertBooks(Collection<BookSearchResult> books) {
+		List<Object[]> args = new ArrayList<>(books.size());
+		long[] ids = this.allocateIds("books_seq", books.size());
+		for (BookSearchResult book : books) {
+			args.add(new Object[] {
+					ids[args.size()], book.getIsbn13(), book.getTitle(), book.getVolume(), book.getClassName().name(),
+					book.getAuthor(), book.getPublisher(), book.getImage() });
+		}
+
+		for (int from = 0; from < args.size(); from += batchSize) {
+			List<Object[]> batch = args.subList(from, Math.min(from + batchSize, args.size()));
+			transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_BOOK_SQL, batch));
+		}
+	}
+
+	/** count ids with one nextval per ID_ALLOCATION_SIZE ids (hi - 49 .. hi), all blocks in one round-trip */
+	private long[] allocateIds(String sequence, int count) {
+		if (count == 0) {
+			return new long[0];
+		}
+		int blocks = (count + ID_ALLOCATION_SIZE - 1) / ID_ALLOCATION_SIZE;
+		List<Long> his = jdbcTemplate.queryForList(
+				"SELECT nextval('" + sequence + "') FROM generate_series(1, ?)", Long.class, blocks);
+
+		long[] ids = new long[count];
+		for (int i = 0; i < count; i++) {
+			ids[i] = his.get(i / ID_ALLOCATION_SIZE) - ID_ALLOCATION_SIZE + 1 + (i % ID_ALLOCATION_SIZE);
+		}
+		return ids;
+	}
+
+	private Set<Long> findOwnedBookIds(Long userId, Collection<Long> bookIds) {
+		if (bookIds.isEmpty()) {
+			return new HashSet<>();
+		}
+		return new HashSet<>(jdbcTemplate.query(con -> {
+			PreparedStatement ps = con.prepareStatement(OWNED_BOOKS_SQL);
+			Array ids = con.createArrayOf("bigint", bookIds.toArray());
+			ps.setLong(1, userId);
+			ps.setArray(2, ids);
+			return ps;
+		}, (rs, rowNum) -> rs.getLong(1)));
+	}
+}
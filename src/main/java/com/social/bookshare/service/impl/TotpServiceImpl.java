@@ -31,14 +31,16 @@ public class TotpServiceImpl implements TotpService {
     private final QrGenerator qrGenerator;
     private final CodeVerifier codeVerifier;
     private final UserRepository userRepository;
+    private final EncryptionUtils encryptionUtils;
     
     public TotpServiceImpl(SecretGenerator secretGenerator, QrDataFactory qrDataFactory, 
-    		QrGenerator qrGenerator, CodeVerifier codeVerifier, UserRepository userRepository) {
+    		QrGenerator qrGenerator, CodeVerifier codeVerifier, UserRepository userRepository, EncryptionUtils encryptionUtils) {
     	this.secretGenerator = secretGenerator;
     	this.qrDataFactory = qrDataFactory;
     	this.qrGenerator = qrGenerator;
     	this.codeVerifier = codeVerifier;
     	this.userRepository = userRepository;
+    	this.encryptionUtils = encryptionUtils;
     }
 
     private String generateQrCodeDataUri(String secret, String userIdentifier) {
@@ -73,7 +75,7 @@ public class TotpServiceImpl implements TotpService {
     	final String qrCodeUri = generateQrCodeDataUri(secret, user.getEmail());
     	
     	try {
-        	String encryptedSecret = EncryptionUtils.encryptWithSystemKey(secret);
+        	String encryptedSecret = encryptionUtils.encryptWithSystemKey(secret);
         	user.updateTfaSecret(encryptedSecret); // Set 2FA secret only (not activated yet)
     	} catch (Exception e) {
             throw new RuntimeException("2FA secret encryption failed", e);
@@ -94,7 +96,7 @@ public class TotpServiceImpl implements TotpService {
 		String decryptedSecret;
 		
 		try {
-			decryptedSecret = EncryptionUtils.decryptWithSystemKey(encryptedSecret);
+			decryptedSecret = encryptionUtils.decryptWithSystemKey(encryptedSecret);
 		} catch (Exception e) {
 			throw new RuntimeException("2FA secret decryption failed", e);
 		}
@@ -118,7 +120,7 @@ public class TotpServiceImpl implements TotpService {
         String decryptedSecret;
         
 		try {
-			decryptedSecret = EncryptionUtils.decryptWithSystemKey(encryptedSecret);
+			decryptedSecret = encryptionUtils.decryptWithSystemKey(encryptedSecret);
 		} catch (Exception e) {
 			throw new RuntimeException("2FA secret decryption failed", e);
 		}
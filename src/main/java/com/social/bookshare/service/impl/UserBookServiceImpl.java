@@ -27,6 +27,7 @@ import com.social.bookshare.repository.UserBookRepository;
 import com.social.bookshare.service.BookService;
 import com.social.bookshare.service.LocationService;
 import com.social.bookshare.service.UserBookService;
+import com.social.bookshare.utils.BookLocationCache;
 import com.social.bookshare.utils.EntityMapper;
 import com.social.bookshare.utils.SecurityUtils;
 
@@ -40,16 +41,18 @@ public class UserBookServiceImpl implements UserBookService {
 	private final LocationService locationService;
 	private final EntityMapper entityMapper;
 	private final RedissonClient redissonClient;
+	private final BookLocationCache bookLocationCache;
 	
 	private static final String PENDING_REGISTRATION_PREFIX = "USER_BOOK:REGISTRATION:REQUEST:";
 
 	public UserBookServiceImpl(UserBookRepository userBookRepository, BookService bookService, LocationService locationService, 
-			EntityMapper entityMapper, RedissonClient redissonClient) {
+			EntityMapper entityMapper, RedissonClient redissonClient, BookLocationCache bookLocationCache) {
 		this.userBookRepository = userBookRepository;
 		this.bookService = bookService;
 		this.locationService = locationService;
 		this.entityMapper = entityMapper;
 		this.redissonClient = redissonClient;
+		this.bookLocationCache = bookLocationCache;
 	}
 
 	@Override
@@ -184,7 +187,10 @@ public class UserBookServiceImpl implements UserBookService {
 				.status(request.getStatus())
 				.build();
 		
-		return userBookRepository.save(ub);
+		UserBook saved = userBookRepository.save(ub);
+		bookLocationCache.evict(saved.getIsbn13(), saved.getLocation().getLocation());
+		
+		return saved;
 	}
 	
 	@Override
@@ -222,11 +228,13 @@ public class UserBookServiceImpl implements UserBookService {
 			request.setLocationId(locationId);
 		}
 		
+		bookLocationCache.evict(userBook.getIsbn13(), userBook.getLocation().getLocation()); // Old place
 		userBook.updateUserBook(
 				entityMapper.getReference(Location.class, request.getLocationId()), 
 				request.getComment(), 
 				Status.valueOf(request.getStatus().strip().toUpperCase())
 			);
+		bookLocationCache.evict(userBook.getIsbn13(), userBook.getLocation().getLocation());
 	}
 
 	@Override
@@ -242,5 +250,6 @@ public class UserBookServiceImpl implements UserBookService {
 		}
 		
 		userBookRepository.delete(userBook);
+		bookLocationCache.evict(userBook.getIsbn13(), userBook.getLocation().getLocation());
 	}
 }
@@ -1,5 +1,17 @@
 package com.social.bookshare.service.impl;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import javax.crypto.AEADBadTagException;
+
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -7,6 +19,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import com.social.bookshare.domain.User;
 import com.social.bookshare.domain.UserKey;
+import com.social.bookshare.dto.DecryptedUserKey;
 import com.social.bookshare.dto.request.UserKeyRegisterRequest;
 import com.social.bookshare.repository.UserKeyRepository;
 import com.social.bookshare.repository.UserRepository;
@@ -21,11 +34,14 @@ public class UserKeyServiceImpl implements UserKeyService {
 	private final UserKeyRepository userKeyRepository;
 	private final UserRepository userRepository;
 	private final PasswordEncoder passwordEncoder;
+	private final EncryptionUtils encryptionUtils;
 	
-	public UserKeyServiceImpl(UserKeyRepository userKeyRepository, UserRepository userRepository, PasswordEncoder passwordEncoder) {
+	public UserKeyServiceImpl(UserKeyRepository userKeyRepository, UserRepository userRepository, 
+			PasswordEncoder passwordEncoder, EncryptionUtils encryptionUtils) {
 		this.userKeyRepository = userKeyRepository;
 		this.userRepository = userRepository;
 		this.passwordEncoder = passwordEncoder;
+		this.encryptionUtils = encryptionUtils;
 	}
 
 	@Override
@@ -39,7 +55,7 @@ public class UserKeyServiceImpl implements UserKeyService {
 	    }
 
 	    byte[] salt = user.getDecodedSalt();
-	    String encryptedKey = EncryptionUtils.encryptHybrid(request.getPassword(), salt, request.getApiKey());
+	    String encryptedKey = encryptionUtils.encryptHybrid(user.getId(), request.getPassword(), salt, request.getApiKey());
 
 	    UserKey userKey = UserKey.builder()
 	    		.user(user)
@@ -49,4 +65,82 @@ public class UserKeyServiceImpl implements UserKeyService {
 	    		
 	    return userKeyRepository.save(userKey);
 	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public List<DecryptedUserKey> decryptKeys(Long userId, String password) {
+		List<DecryptedUserKey> decrypted = this.decryptKeys(Map.of(userId, password)).get(userId);
+		if (decrypted == null) {
+			throw new BadCredentialsException("Invalid password");
+		}
+		return decrypted;
+	}
+	
+	@Override
+	@Transactional(readOnly = true)
+	public Map<Long, List<DecryptedUserKey>> decryptKeys(Map<Long, String> passwordsByUserId) {
+		// One query for all users, grouped per user
+		Map<Long, List<UserKey>> keysByUserId = userKeyRepository.findByUserIdIn(passwordsByUserId.keySet()).stream()
+				.collect(Collectors.groupingBy(uk -> uk.getUser().getId()));
+		
+		// Users without keys have no GCM tag to fail: their password is checked against the stored hash instead
+		Map<Long, String> hashesWithoutKeys = new HashMap<>();
+		List<Long> idsWithoutKeys = passwordsByUserId.keySet().stream().filter(id -> !keysByUserId.containsKey(id)).toList();
+		for (User user : userRepository.findAllById(idsWithoutKeys)) {
+			hashesWithoutKeys.put(user.getId(), user.getPassword());
+		}
+		
+		Map<Long, List<DecryptedUserKey>> result = new HashMap<>();
+		
+		// Each user derives the combined key once; users are checked in parallel.
+		// A wrong password (GCM tag or hash mismatch) only leaves that user out of the result.
+		try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+			Map<Long, Future<List<DecryptedUserKey>>> futures = new HashMap<>();
+			
+			for (Map.Entry<Long, List<UserKey>> entry : keysByUserId.entrySet()) {
+				Long userId = entry.getKey();
+				List<UserKey> userKeys = entry.getValue();
+				// Snapshot entity state here, not in worker threads
+				byte[] salt = userKeys.get(0).getUser().getDecodedSalt();
+				List<Long> keyIds = userKeys.stream().map(UserKey::getId).toList();
+				List<String> types = userKeys.stream().map(UserKey::getType).toList();
+				List<String> encryptedKeys = userKeys.stream().map(UserKey::getKey).toList();
+				String password = passwordsByUserId.get(userId);
+				
+				futures.put(userId, executor.submit(() -> {
+					List<String> plainKeys;
+					try {
+						plainKeys = encryptionUtils.decryptHybridAll(userId, password, salt, encryptedKeys);
+					} catch (AEADBadTagException e) {
+						return null;
+					}
+					
+					List<DecryptedUserKey> decrypted = new ArrayList<>(keyIds.size());
+					for (int i = 0; i < keyIds.size(); i++) {
+						decrypted.add(new DecryptedUserKey(keyIds.get(i), types.get(i), plainKeys.get(i)));
+					}
+					return decrypted;
+				}));
+			}
+			
+			for (Map.Entry<Long, String> entry : hashesWithoutKeys.entrySet()) {
+				String password = passwordsByUserId.get(entry.getKey());
+				String hash = entry.getValue();
+				
+				futures.put(entry.getKey(), executor.submit(() -> passwordEncoder.matches(password, hash) ? List.<DecryptedUserKey>of() : null));
+			}
+			
+			for (Map.Entry<Long, Future<List<DecryptedUserKey>>> entry : futures.entrySet()) {
+				List<DecryptedUserKey> decrypted = entry.getValue().get();
+				if (decrypted != null) result.put(entry.getKey(), decrypted);
+			}
+		} catch (ExecutionException e) {
+			throw new IllegalStateException("User key decryption failed", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("User key decryption interrupted", e);
+		}
+		
+		return result;
+	}
 }
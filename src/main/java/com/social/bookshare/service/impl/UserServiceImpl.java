@@ -19,6 +19,7 @@ import com.social.bookshare.repository.UserRepository;
 import com.social.bookshare.service.TotpService;
 import com.social.bookshare.service.UserService;
 
+import io.jsonwebtoken.Claims;
 import jakarta.persistence.EntityNotFoundException;
 
 @Service
@@ -55,11 +56,13 @@ public class UserServiceImpl implements UserService {
 	@Override
 	@Transactional(readOnly = true)
 	public User authenticateTwoFactorLevel(String preAuthToken, String totpCode) {
-		if (!jwtTokenProvider.validatePreAuthToken(preAuthToken)) {
+		Claims claims = jwtTokenProvider.verifyPreAuthToken(preAuthToken);
+		
+		if (claims == null) {
 			throw new AccessDeniedException("Invalid or expired pre-authentication token.");
 		}
 
-		Long userId = jwtTokenProvider.getUserId(preAuthToken);
+		Long userId = jwtTokenProvider.getUserId(claims);
     	User authenticatedUser = totpService.authenticateTfa(userId, totpCode);
     	
     	return authenticatedUser;
@@ -104,5 +107,7 @@ public class UserServiceImpl implements UserService {
 		
 		String encodedNewPassword = passwordEncoder.encode(request.getNewPassword());
 		user.updatePassword(encodedNewPassword);
+		
+		jwtTokenProvider.revokeAccessTokens(userId); // Log out access tokens already issued
 	}
 }
@@ -0,0 +1,230 @@
+package com.social.bookshare.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.locationtech.jts.geom.Point;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.social.bookshare.repository.BookRepository;
+import com.social.bookshare.repository.BookRepository.BookLocationProjection;
+
+import jakarta.annotation.PostConstruct;
+
+/**
+ * Proximity cache for private book locations: (isbn13, geohash cell) -> every available owner location in the cell.
+ * A lookup takes the 3x3 cells around the user (missing ones loaded in one box query) and re-ranks them per user
+ * with calculateDistance. Changes drop only the affected cells, on every instance through a Redis topic.
+ */
+@Component
+public class BookLocationCache {
+
+	private static final String INVALIDATION_TOPIC = "book-location-invalidations";
+	private static final int PRECISION = 5; // ~4.9 x 4.9 km cells (~3.9 km wide in Seoul)
+	private static final String ANY_ISBN = "*";
+
+	private final BookRepository bookRepository;
+	private final GeometryUtils geometryUtils;
+	private final RTopic topic;
+	private final Cache<String, List<OwnerLocation>> cells;
+	private final Object lock = new Object();
+	private long generation; // Bumped by every eviction; a load that raced one is not kept
+
+	public BookLocationCache(BookRepository bookRepository, GeometryUtils geometryUtils, RedissonClient redissonClient,
+			@Value("${book.locations.cache.maximumOwners:200000}") long maximumOwners,
+			@Value("${book.locations.cache.ttl:10m}") Duration ttl) {
+		this.bookRepository = bookRepository;
+		this.geometryUtils = geometryUtils;
+		this.topic = redissonClient.getTopic(INVALIDATION_TOPIC);
+		this.cells = Caffeine.newBuilder()
+				.maximumWeight(maximumOwners)
+				.weigher((String key, List<OwnerLocation> owners) -> owners.size() + 1)
+				.expireAfterWrite(ttl)
+				.build();
+	}
+
+	@PostConstruct
+	void subscribe() {
+		topic.addListener(String.class, (_, key) -> this.evictLocal(key));
+	}
+
+	/**
+	 * Nearest available owners (distance in km), or empty when the 3x3 block cannot prove the answer:
+	 * the page reaches past the block edge, or the user is near a pole. The caller then asks the database.
+	 */
+	public Optional<List<BookLocationProjection>> findNearest(String isbn13, double userLat, double userLon, Double radiusMeters, int pageSize) {
+		if (pageSize <= 0) {
+			return Optional.of(List.of());
+		}
+		List<String> block = GeoHashUtils.block(GeoHashUtils.encode(userLat, userLon, PRECISION));
+		if (block.isEmpty()) {
+			return Optional.empty();
+		}
+
+		Map<String, List<OwnerLocation>> owners = new HashMap<>();
+		List<String> misses = new ArrayList<>();
+		for (String cell : block) {
+			List<OwnerLocation> cached = cells.getIfPresent(cellKey(isbn13, cell));
+			if (cached == null) {
+				misses.add(cell);
+			} else {
+				owners.put(cell, cached);
+			}
+		}
+		if (!misses.isEmpty()) {
+			owners.putAll(this.load(isbn13, misses));
+		}
+
+		// Exact re-rank for this user
+		List<BookLocationProjection> ranked = new ArrayList<>();
+		for (List<OwnerLocation> cellOwners : owners.values()) {
+			for (OwnerLocation owner : cellOwners) {
+				double distance = geometryUtils.calculateDistance(userLat, userLon, owner.lat, owner.lon); // meter
+				if (radiusMeters == null || distance <= radiusMeters) {
+					ranked.add(owner.at(distance / 1000.0));
+				}
+			}
+		}
+		ranked.sort(Comparator.comparingDouble(BookLocationProjection::getDistance));
+
+		// Anything outside the block is farther than the block edge
+		double coverage = this.coverage(block, userLat, userLon);
+		boolean complete = (radiusMeters != null && radiusMeters <= coverage)
+				|| (ranked.size() >= pageSize && ranked.get(pageSize - 1).getDistance() * 1000.0 <= coverage);
+
+		return complete
+				? Optional.of(List.copyOf(ranked.subList(0, Math.min(pageSize, ranked.size()))))
+				: Optional.empty();
+	}
+
+	/** A user book changed availability: drops its ISBN in the cell of its location, after commit */
+	public void evict(String isbn13, Point location) {
+		this.evictAfterCommit(cellKey(isbn13, GeoHashUtils.encode(location.getY(), location.getX(), PRECISION)));
+	}
+
+	/** A location was toggled, removed or filled in bulk: drops every ISBN in its cell, after commit */
+	public void evictCell(Point location) {
+		this.evictAfterCommit(cellKey(ANY_ISBN, GeoHashUtils.encode(location.getY(), location.getX(), PRECISION)));
+	}
+
+	private Map<String, List<OwnerLocation>> load(String isbn13, List<String> misses) {
+		long startGeneration;
+		synchronized (lock) {
+			startGeneration = generation;
+		}
+
+		// One box over the missing cells; rows of cells already cached are dropped
+		double minLat = 90, minLon = 180, maxLat = -90, maxLon = -180;
+		Map<String, List<OwnerLocation>> loaded = new HashMap<>();
+		for (String cell : misses) {
+			double[] b = GeoHashUtils.bounds(cell);
+			minLat = Math.min(minLat, b[0]);
+			minLon = Math.min(minLon, b[1]);
+			maxLat = Math.max(maxLat, b[2]);
+			maxLon = Math.max(maxLon, b[3]);
+			loaded.put(cell, new ArrayList<>());
+		}
+
+		for (BookLocationProjection row : bookRepository.findPrivateBookLocationsInBox(isbn13, minLat, minLon, maxLat, maxLon)) {
+			List<OwnerLocation> cellOwners = loaded.get(GeoHashUtils.encode(row.getLat(), row.getLon(), PRECISION));
+			if (cellOwners != null) {
+				cellOwners.add(new OwnerLocation(row.getOwner(), row.getLabel(), row.getAddress(), row.getLat(), row.getLon()));
+			}
+		}
+
+		synchronized (lock) {
+			if (generation == startGeneration) {
+				loaded.forEach((cell, owners) -> cells.put(cellKey(isbn13, cell), List.copyOf(owners)));
+			}
+		}
+		return loaded;
+	}
+
+	private double coverage(List<String> block, double lat, double lon) {
+		double[] southWest = GeoHashUtils.bounds(block.get(0));
+		double[] northEast = GeoHashUtils.bounds(block.get(block.size() - 1));
+		if (northEast[3] < southWest[1]) {
+			return 0; // Block wraps the antimeridian
+		}
+
+		double toEdge = Math.min(
+				Math.min(geometryUtils.calculateDistance(lat, lon, southWest[0], lon), geometryUtils.calculateDistance(lat, lon, northEast[2], lon)),
+				Math.min(geometryUtils.calculateDistance(lat, lon, lat, southWest[1]), geometryUtils.calculateDistance(lat, lon, lat, northEast[3])));
+
+		return toEdge * 0.99; // Along a parallel is a hair longer than the shortest way to the meridian
+	}
+
+	private void evictAfterCommit(String key) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					publish(key);
+				}
+			});
+		} else {
+			this.publish(key);
+		}
+	}
+
+	private void publish(String key) {
+		this.evictLocal(key); // Local first, whatever Redis does
+		topic.publishAsync(key);
+	}
+
+	private void evictLocal(String key) {
+		synchronized (lock) {
+			generation++;
+			if (key.startsWith(ANY_ISBN + ":")) {
+				String cellSuffix = key.substring(ANY_ISBN.length());
+				cells.asMap().keySet().removeIf(k -> k.endsWith(cellSuffix));
+			} else {
+				cells.invalidate(key);
+			}
+		}
+	}
+
+	private static String cellKey(String isbn13, String cell) {
+		return isbn13 + ":" + cell;
+	}
+
+	private static final class OwnerLocation {
+
+		private final String owner;
+		private final String label;
+		private final String address;
+		private final double lat;
+		private final double lon;
+
+		private OwnerLocation(String owner, String label, String address, double lat, double lon) {
+			this.owner = owner;
+			this.label = label;
+			this.address = address;
+			this.lat = lat;
+			this.lon = lon;
+		}
+
+		private BookLocationProjection at(double distance) {
+			return new BookLocationProjection() {
+				@Override public String getOwner() { return owner; }
+				@Override public String getLabel() { return label; }
+				@Override public String getAddress() { return address; }
+				@Override public Double getLon() { return lon; }
+				@Override public Double getLat() { return lat; }
+				@Override public Double getDistance() { return distance; }
+			};
+		}
+	}
+}
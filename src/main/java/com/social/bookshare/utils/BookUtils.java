@@ -12,6 +12,36 @@ public class BookUtils {
         throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
     }
 
+	/** ISBN-13 for an ISBN-10 or ISBN-13 (hyphens and spaces ignored); null if it is neither, or an ISBN-10 fails its checksum */
+	public static String toIsbn13(String isbn) {
+		if (isbn == null) {
+			return null;
+		}
+		String digits = isbn.replaceAll("[\\s-]", "");
+		if (digits.matches("\\d{13}")) {
+			return digits;
+		}
+		if (!digits.matches("\\d{9}[\\dXx]") || !isValidIsbn10(digits)) {
+			return null; // A mistyped ISBN-10 would convert to a well-formed ISBN-13 of another book
+		}
+		String body = "978" + digits.substring(0, 9); // The ISBN-10 check digit is replaced by the ISBN-13 one
+		int sum = 0;
+		for (int i = 0; i < body.length(); i++) {
+			sum += (body.charAt(i) - '0') * (i % 2 == 0 ? 1 : 3);
+		}
+		return body + (10 - sum % 10) % 10;
+	}
+
+	// Weights 10..1, X = 10 as the check digit; the sum is a multiple of 11
+	private static boolean isValidIsbn10(String digits) {
+		int sum = 0;
+		for (int i = 0; i < 10; i++) {
+			char c = digits.charAt(i);
+			sum += (10 - i) * ((c == 'X' || c == 'x') ? 10 : c - '0');
+		}
+		return sum % 11 == 0;
+	}
+
 	public static String generateBookHash(String title, Short volume, String author, String publisher) {
 		if (Stream.of(title, author, publisher).anyMatch(s -> s == null || s.isBlank()) || volume == null) {
 			throw new IllegalArgumentException("Must be filled in: title, author, publisher");
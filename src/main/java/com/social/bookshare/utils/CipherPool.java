@@ -0,0 +1,55 @@
+package com.social.bookshare.utils;
+
+import java.security.GeneralSecurityException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.crypto.Cipher;
+
+/**
+ * Reusable Cipher instances. Platform threads keep one per thread,
+ * virtual threads borrow from a bounded shared deque (ThreadLocal would live only as long as the virtual thread).
+ * A Cipher must be re-initialized by the borrower before every use.
+ */
+final class CipherPool {
+
+	private static final int MAX_SHARED = 64;
+
+	private final String transformation;
+	private final ThreadLocal<Cipher> perThread = new ThreadLocal<>();
+	private final ConcurrentLinkedDeque<Cipher> shared = new ConcurrentLinkedDeque<>();
+	private final AtomicInteger sharedSize = new AtomicInteger();
+
+	CipherPool(String transformation) {
+		this.transformation = transformation;
+	}
+
+	Cipher acquire() throws GeneralSecurityException {
+		if (Thread.currentThread().isVirtual()) {
+			Cipher cipher = shared.pollFirst();
+			if (cipher != null) {
+				sharedSize.decrementAndGet();
+				return cipher;
+			}
+			return Cipher.getInstance(transformation);
+		}
+
+		Cipher cipher = perThread.get();
+		if (cipher == null) {
+			cipher = Cipher.getInstance(transformation);
+			perThread.set(cipher);
+		}
+		return cipher;
+	}
+
+	void release(Cipher cipher) {
+		if (!Thread.currentThread().isVirtual()) {
+			return; // Stays bound to this platform thread
+		}
+		if (sharedSize.incrementAndGet() <= MAX_SHARED) {
+			shared.offerFirst(cipher);
+		} else {
+			sharedSize.decrementAndGet(); // Pool full, let GC take it
+		}
+	}
+}
@@ -0,0 +1,72 @@
+package com.social.bookshare.utils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+public class CsvUtils {
+
+	private CsvUtils() {
+		throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	/**
+	 * Parses CSV with a header line into one map per row (header name -> value, blank -> null).
+	 * Supports "quoted, fields" and "" escapes; a quoted field cannot span lines.
+	 */
+	public static List<Map<String, String>> parse(String csv) {
+		List<Map<String, String>> rows = new ArrayList<>();
+		String[] lines = csv.strip().split("\\r?\\n");
+		if (lines.length == 0 || lines[0].isBlank()) {
+			return rows;
+		}
+
+		List<String> header = parseLine(lines[0].replace("\uFEFF", "")); // Excel BOM
+		for (int i = 1; i < lines.length; i++) {
+			if (lines[i].isBlank()) continue;
+
+			List<String> fields = parseLine(lines[i]);
+			Map<String, String> row = new HashMap<>();
+			for (int c = 0; c < header.size() && c < fields.size(); c++) {
+				String value = fields.get(c).strip();
+				row.put(header.get(c).strip().toLowerCase(Locale.ROOT), value.isEmpty() ? null : value);
+			}
+			rows.add(row);
+		}
+		return rows;
+	}
+
+	public static List<String> parseLine(String line) {
+		List<String> fields = new ArrayList<>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (quoted) {
+				if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+					field.append('"');
+					i++;
+				} else if (c == '"') {
+					quoted = false;
+				} else {
+					field.append(c);
+				}
+			} else if (c == '"') {
+				quoted = true;
+			} else if (c == ',') {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		if (quoted) {
+			throw new IllegalArgumentException("Unterminated quote: " + line);
+		}
+		fields.add(field.toString());
+		return fields;
+	}
+}
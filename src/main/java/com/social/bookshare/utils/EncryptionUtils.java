@@ -1,12 +1,16 @@
 package com.social.bookshare.utils;
 
-import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
 import java.security.spec.KeySpec;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.List;
 
 import javax.crypto.Cipher;
+import javax.crypto.Mac;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.GCMParameterSpec;
 import javax.crypto.spec.PBEKeySpec;
@@ -15,6 +19,10 @@ import javax.crypto.spec.SecretKeySpec;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+
 @Component
 public class EncryptionUtils {
 	
@@ -24,12 +32,25 @@ public class EncryptionUtils {
     private static final int TAG_LENGTH_BIT = 128;
     private static final int IV_LENGTH_BYTE = 12;
 
-    private final String systemKey;
+    private final SecretKeySpec systemKeySpec; // Derived once at startup
     private final SecureRandom secureRandom;
-
-    public EncryptionUtils(@Value("${secret.encryption.key}") String systemKey, SecureRandom secureRandom) {
-        this.systemKey = systemKey;
+    private final Cache<String, DerivedKey> combinedKeyCache;
+    private final CipherPool cipherPool = new CipherPool(ALGORITHM);
+
+    public EncryptionUtils(
+    		@Value("${secret.encryption.key}") String systemKey, 
+    		SecureRandom secureRandom,
+    		@Value("${secret.encryption.keyCache.maximumSize:1000}") long keyCacheMaximumSize,
+    		@Value("${secret.encryption.keyCache.expireAfterAccess:10m}") Duration keyCacheExpireAfterAccess) {
+        this.systemKeySpec = deriveSystemKey(systemKey); // Fail fast on invalid key
         this.secureRandom = secureRandom;
+        this.combinedKeyCache = Caffeine.newBuilder()
+        		.maximumSize(keyCacheMaximumSize)
+        		.expireAfterAccess(keyCacheExpireAfterAccess)
+        		.removalListener((String cacheKey, DerivedKey derivedKey, RemovalCause cause) -> {
+        			if (derivedKey != null) derivedKey.destroy(); // Zeroize on evict
+        		})
+        		.build();
     }
     
     public byte[] generateRandomBytes(int length) {
@@ -55,14 +76,14 @@ public class EncryptionUtils {
     // --- System-wide Key Encryption/Decryption ---
 
     public String encryptWithSystemKey(String plainText) throws Exception {
-        return encipher(deriveSystemKey(), plainText);
+        return encipher(systemKeySpec, plainText);
     }
 
     public String decryptWithSystemKey(String encryptedDataWithIv) throws Exception {
-    	return decipher(deriveSystemKey(), encryptedDataWithIv);
+    	return decipher(systemKeySpec, encryptedDataWithIv);
     }
 
-    private SecretKeySpec deriveSystemKey() {
+    private static SecretKeySpec deriveSystemKey(String systemKey) {
         byte[] keyBytes = Base64.getDecoder().decode(systemKey);
         // Ensure the key length is 256 bits for AES-256
         if (keyBytes.length != KEY_LENGTH / 8) {
@@ -74,59 +95,138 @@ public class EncryptionUtils {
     
     // --- Hybrid Encryption/Decryption ---
     
-    public String encryptHybrid(String userKey, byte[] salt, String plainText) throws Exception {
-        return encipher(deriveCombinedKey(userKey, salt), plainText);
+    public String encryptHybrid(Long userId, String userKey, byte[] salt, String plainText) throws Exception {
+    	String cacheKey = combinedKeyCacheKey(userId, userKey, salt);
+    	SecretKeySpec keySpec = this.cachedCombinedKey(cacheKey);
+    	
+    	if (keySpec == null) {
+    		byte[] combined = deriveCombinedKey(userKey, salt);
+    		keySpec = new SecretKeySpec(combined, "AES"); // Copies bytes
+    		combinedKeyCache.put(cacheKey, new DerivedKey(combined)); // Callers check the password before encrypting
+    	}
+        return encipher(keySpec, plainText);
     }
 
-    public String decryptHybrid(String userKey, byte[] salt, String encryptedData) throws Exception {
-        return decipher(deriveCombinedKey(userKey, salt), encryptedData);
+    public String decryptHybrid(Long userId, String userKey, byte[] salt, String encryptedData) throws Exception {
+        return this.decryptHybridAll(userId, userKey, salt, List.of(encryptedData)).get(0);
+    }
+    
+    /** Decrypt all values of one user with a single key derivation */
+    public List<String> decryptHybridAll(Long userId, String userKey, byte[] salt, List<String> encryptedData) throws Exception {
+    	String cacheKey = combinedKeyCacheKey(userId, userKey, salt);
+    	SecretKeySpec keySpec = this.cachedCombinedKey(cacheKey);
+    	byte[] derived = null;
+    	
+    	if (keySpec == null) {
+    		derived = deriveCombinedKey(userKey, salt);
+    		keySpec = new SecretKeySpec(derived, "AES");
+    	}
+    	
+    	boolean cached = false;
+    	try {
+    		List<String> decrypted = new ArrayList<>(encryptedData.size());
+    		for (String data : encryptedData) {
+    			decrypted.add(decipher(keySpec, data)); // AEADBadTagException on a wrong password
+    		}
+    		
+    		// Cached only once a GCM tag proved the password, so wrong guesses never push real keys out
+    		if (derived != null && !encryptedData.isEmpty()) {
+    			combinedKeyCache.put(cacheKey, new DerivedKey(derived));
+    			cached = true;
+    		}
+    		return decrypted;
+    	} finally {
+    		if (derived != null && !cached) Arrays.fill(derived, (byte) 0);
+    	}
+    }
+    
+    private SecretKeySpec cachedCombinedKey(String cacheKey) {
+    	DerivedKey cached = combinedKeyCache.getIfPresent(cacheKey);
+    	return (cached == null) ? null : cached.toKeySpec(); // null if zeroized meanwhile, derive again
+    }
+    
+    // userKey fingerprint is part of the cache key, so a wrong password never hits a cached key
+    private String combinedKeyCacheKey(Long userId, String userKey, byte[] salt) throws Exception {
+    	return userId + ":" + Base64.getEncoder().encodeToString(salt) + ":" + fingerprint(userKey);
     }
 
-    private SecretKeySpec deriveCombinedKey(String userKey, byte[] salt) throws Exception {
+    private byte[] deriveCombinedKey(String userKey, byte[] salt) throws Exception {
         byte[] uKey = deriveKey(userKey, salt).getEncoded();
-        byte[] sKey = deriveSystemKey().getEncoded();
+        byte[] sKey = systemKeySpec.getEncoded();
 
         byte[] combined = new byte[32];
         for (int i = 0; i < 32; i++) {
             combined[i] = (byte) (uKey[i] ^ sKey[i]);
         }
-        return new SecretKeySpec(combined, "AES");
+        Arrays.fill(uKey, (byte) 0);
+        Arrays.fill(sKey, (byte) 0);
+        
+        return combined;
+    }
+    
+    private String fingerprint(String userKey) throws Exception {
+    	Mac mac = Mac.getInstance("HmacSHA256");
+    	mac.init(systemKeySpec);
+    	
+    	return Base64.getEncoder().withoutPadding().encodeToString(mac.doFinal(userKey.getBytes(StandardCharsets.UTF_8)));
+    }
+    
+    // Cached key material, zeroized when evicted
+    private static class DerivedKey {
+    	
+    	private final byte[] keyBytes;
+    	private volatile boolean destroyed = false;
+    	
+    	private DerivedKey(byte[] keyBytes) {
+    		this.keyBytes = keyBytes;
+    	}
+    	
+    	private SecretKeySpec toKeySpec() {
+    		SecretKeySpec keySpec = new SecretKeySpec(keyBytes, "AES");
+    		// Checked after copying: if not destroyed by now, the copy was taken before zeroizing
+    		return destroyed ? null : keySpec;
+    	}
+    	
+    	private void destroy() {
+    		destroyed = true;
+    		Arrays.fill(keyBytes, (byte) 0);
+    	}
     }
     
     // --- base ---
     
 	private String encipher(SecretKeySpec keySpec, String plainText) throws Exception {
+		byte[] plainBytes = plainText.getBytes(StandardCharsets.UTF_8);
 		byte[] iv = new byte[IV_LENGTH_BYTE];
         secureRandom.nextBytes(iv); // Random IV
-
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        GCMParameterSpec gcmSpec = new GCMParameterSpec(TAG_LENGTH_BIT, iv);
-        cipher.init(Cipher.ENCRYPT_MODE, keySpec, gcmSpec);
         
-        byte[] cipherText = cipher.doFinal(plainText.getBytes(StandardCharsets.UTF_8));
-
-        // Combine IV and CipherText
-        ByteBuffer byteBuffer = ByteBuffer.allocate(iv.length + cipherText.length);
-        byteBuffer.put(iv);
-        byteBuffer.put(cipherText);
+        // IV and CipherText (with tag) written into one buffer
+        byte[] output = new byte[IV_LENGTH_BYTE + plainBytes.length + TAG_LENGTH_BIT / 8];
+        System.arraycopy(iv, 0, output, 0, IV_LENGTH_BYTE);
+
+        Cipher cipher = cipherPool.acquire();
+        try {
+        	cipher.init(Cipher.ENCRYPT_MODE, keySpec, new GCMParameterSpec(TAG_LENGTH_BIT, iv));
+        	cipher.doFinal(plainBytes, 0, plainBytes.length, output, IV_LENGTH_BYTE);
+        } finally {
+        	cipherPool.release(cipher);
+        }
 
-        return Base64.getEncoder().encodeToString(byteBuffer.array());
+        return Base64.getEncoder().encodeToString(output);
     }
 	
 	private String decipher(SecretKeySpec keySpec, String encryptedDataWithIv) throws Exception {
     	byte[] decoded = Base64.getDecoder().decode(encryptedDataWithIv);
-
-        // Separate IV and CipherText
-        ByteBuffer byteBuffer = ByteBuffer.wrap(decoded);
-        byte[] iv = new byte[IV_LENGTH_BYTE];
-        byteBuffer.get(iv);
-        byte[] cipherText = new byte[byteBuffer.remaining()];
-        byteBuffer.get(cipherText);
-
-        Cipher cipher = Cipher.getInstance(ALGORITHM);
-        GCMParameterSpec gcmSpec = new GCMParameterSpec(TAG_LENGTH_BIT, iv);
-        cipher.init(Cipher.DECRYPT_MODE, keySpec, gcmSpec);
-
-        return new String(cipher.doFinal(cipherText), StandardCharsets.UTF_8);
+    	
+    	Cipher cipher = cipherPool.acquire();
+    	try {
+    		// IV and CipherText read in place, no intermediate copies
+    		cipher.init(Cipher.DECRYPT_MODE, keySpec, new GCMParameterSpec(TAG_LENGTH_BIT, decoded, 0, IV_LENGTH_BYTE));
+    		byte[] plainBytes = cipher.doFinal(decoded, IV_LENGTH_BYTE, decoded.length - IV_LENGTH_BYTE);
+    		
+    		return new String(plainBytes, StandardCharsets.UTF_8);
+    	} finally {
+    		cipherPool.release(cipher);
+    	}
     }
 }
@@ -0,0 +1,103 @@
+package com.social.bookshare.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class GeoHashUtils {
+
+	private static final String BASE32 = "0123456789bcdefghjkmnpqrstuvwxyz";
+
+	private GeoHashUtils() {
+		throw new UnsupportedOperationException("This is a utility class and cannot be instantiated");
+	}
+
+	public static String encode(double lat, double lon, int precision) {
+		double minLat = -90, maxLat = 90;
+		double minLon = -180, maxLon = 180;
+
+		StringBuilder hash = new StringBuilder(precision);
+		boolean evenBit = true; // Bits alternate lon, lat, lon, ...
+		int bits = 0;
+		int ch = 0;
+
+		while (hash.length() < precision) {
+			if (evenBit) {
+				double mid = (minLon + maxLon) / 2;
+				if (lon >= mid) {
+					ch = (ch << 1) | 1;
+					minLon = mid;
+				} else {
+					ch <<= 1;
+					maxLon = mid;
+				}
+			} else {
+				double mid = (minLat + maxLat) / 2;
+				if (lat >= mid) {
+					ch = (ch << 1) | 1;
+					minLat = mid;
+				} else {
+					ch <<= 1;
+					maxLat = mid;
+				}
+			}
+			evenBit = !evenBit;
+
+			if (++bits == 5) {
+				hash.append(BASE32.charAt(ch));
+				bits = 0;
+				ch = 0;
+			}
+		}
+		return hash.toString();
+	}
+
+	/** Cell bounds as {minLat, minLon, maxLat, maxLon} */
+	public static double[] bounds(String hash) {
+		double minLat = -90, maxLat = 90;
+		double minLon = -180, maxLon = 180;
+		boolean evenBit = true;
+
+		for (int i = 0; i < hash.length(); i++) {
+			int ch = BASE32.indexOf(hash.charAt(i));
+			if (ch < 0) {
+				throw new IllegalArgumentException("Invalid geohash: " + hash);
+			}
+			for (int bit = 4; bit >= 0; bit--) {
+				boolean set = ((ch >> bit) & 1) == 1;
+				if (evenBit) {
+					double mid = (minLon + maxLon) / 2;
+					if (set) minLon = mid; else maxLon = mid;
+				} else {
+					double mid = (minLat + maxLat) / 2;
+					if (set) minLat = mid; else maxLat = mid;
+				}
+				evenBit = !evenBit;
+			}
+		}
+		return new double[] { minLat, minLon, maxLat, maxLon };
+	}
+
+	/** The cell and its 8 neighbours, row by row from south-west; empty near the poles where the block would be cut */
+	public static List<String> block(String hash) {
+		double[] b = bounds(hash);
+		double height = b[2] - b[0];
+		double width = b[3] - b[1];
+		double centerLat = (b[0] + b[2]) / 2;
+		double centerLon = (b[1] + b[3]) / 2;
+
+		List<String> cells = new ArrayList<>(9);
+		if (centerLat - 1.5 * height < -90 || centerLat + 1.5 * height > 90) {
+			return cells;
+		}
+		for (int row = -1; row <= 1; row++) {
+			for (int col = -1; col <= 1; col++) {
+				double lon = centerLon + col * width;
+				if (lon >= 180) lon -= 360;
+				if (lon < -180) lon += 360;
+
+				cells.add(encode(centerLat + row * height, lon, hash.length()));
+			}
+		}
+		return cells;
+	}
+}
@@ -8,6 +8,9 @@ import org.springframework.stereotype.Component;
 @Component
 public class GeometryUtils {
 
+	private static final double EARTH_DIAMETER = 2 * 6_371_000.0; // meter
+	private static final double DEG_TO_RAD = Math.PI / 180;
+
 	private final GeometryFactory factory;
 	
 	public GeometryUtils(GeometryFactory geometryFactory) {
@@ -33,4 +36,27 @@ public class GeometryUtils {
 	    
 	    return R * c * 1000; // meter
 	}
+	
+	/**
+	 * Haversine distances (meter) from one point to many: out[i] = distance to (lats[i], lons[i]).
+	 * The point's radians and cosine are computed once; the loop is plain arithmetic over primitive arrays,
+	 * no boxing or calls besides the Math intrinsics, so the JIT keeps it tight (and unrolls the arithmetic).
+	 */
+	public void calculateDistances(double lat, double lon, double[] lats, double[] lons, double[] out) {
+		int n = lats.length;
+		if (lons.length != n || out.length < n) {
+			throw new IllegalArgumentException("Coordinate arrays: length mismatch");
+		}
+		double latRad = lat * DEG_TO_RAD;
+		double cosLat = Math.cos(latRad);
+		
+		for (int i = 0; i < n; i++) {
+			double otherLatRad = lats[i] * DEG_TO_RAD;
+			double sinDLat = Math.sin((otherLatRad - latRad) * 0.5);
+			double sinDLon = Math.sin((lons[i] - lon) * DEG_TO_RAD * 0.5);
+			double a = sinDLat * sinDLat + cosLat * Math.cos(otherLatRad) * sinDLon * sinDLon;
+			
+			out[i] = EARTH_DIAMETER * Math.asin(Math.min(1.0, Math.sqrt(a)));
+		}
+	}
 }
@@ -0,0 +1,165 @@
+package com.social.bookshare.utils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Two-tier cache for data4library API results: in-process (L1) and Redis (L2, shared by instances).
+ * Entries older than freshTtl are served stale while one background refresh runs (outcomes counted, failures logged).
+ * Concurrent loads of the same key are collapsed into one upstream call.
+ */
+@Component
+public class LibraryApiCache {
+
+	private static final Logger log = LoggerFactory.getLogger(LibraryApiCache.class);
+	private static final String CACHE_PREFIX = "LIBRARY_API:";
+	
+	private final RedissonClient redissonClient;
+	private final ExecutorService executor;
+	private final MeterRegistry meterRegistry;
+	private final Cache<String, CachedResult> localCache;
+	private final Map<String, CompletableFuture<CachedResult>> inFlight = new ConcurrentHashMap<>();
+	private final long freshTtlMillis;
+	private final Duration staleTtl;
+	
+	public LibraryApiCache(RedissonClient redissonClient, 
+			@Qualifier("virtualThreadExecutor") ExecutorService executor, MeterRegistry meterRegistry,
+			@Value("${data4library.cache.localMaximumSize:10000}") long localMaximumSize,
+			@Value("${data4library.cache.freshTtl:10m}") Duration freshTtl,
+			@Value("${data4library.cache.staleTtl:1h}") Duration staleTtl) {
+		this.redissonClient = redissonClient;
+		this.executor = executor;
+		this.meterRegistry = meterRegistry;
+		this.freshTtlMillis = freshTtl.toMillis();
+		this.staleTtl = staleTtl;
+		this.localCache = Caffeine.newBuilder()
+				.maximumSize(localMaximumSize)
+				.expireAfterWrite(staleTtl)
+				.build();
+	}
+	
+	/** Normalized key: namespace and non-blank params sorted by name, case and whitespace insensitive */
+	public static String cacheKey(String namespace, Object... keyValues) {
+		Map<String, String> params = new TreeMap<>();
+		
+		for (int i = 0; i + 1 < keyValues.length; i += 2) {
+			Object value = keyValues[i + 1];
+			if (value == null || value.toString().isBlank()) continue;
+			
+			params.put(keyValues[i].toString(), value.toString().strip().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT));
+		}
+		
+		StringJoiner joiner = new StringJoiner("&", namespace + "?", "");
+		params.forEach((name, value) -> joiner.add(name + "=" + value));
+		
+		return joiner.toString();
+	}
+	
+	@SuppressWarnings("unchecked")
+	public <T> List<T> get(String key, Supplier<List<T>> loader) {
+		CachedResult cached = localCache.getIfPresent(key);
+		
+		if (cached == null) {
+			RBucket<CachedResult> bucket = redissonClient.getBucket(CACHE_PREFIX + key);
+			cached = bucket.get();
+			if (cached != null) localCache.put(key, cached);
+		}
+		
+		if (cached != null) {
+			if (System.currentTimeMillis() - cached.getFetchedAt() > freshTtlMillis) {
+				this.load(key, loader, true); // Refresh in background, serve stale meanwhile
+			}
+			return (List<T>) cached.getValue();
+		}
+		
+		try {
+			return (List<T>) this.load(key, loader, false).join().getValue();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof RuntimeException re) throw re;
+			throw e;
+		}
+	}
+	
+	public void evict(String key) {
+		localCache.invalidate(key);
+		redissonClient.getBucket(CACHE_PREFIX + key).delete();
+	}
+	
+	// A caller of a foreground load gets its failure; a background refresh has nobody to tell, so it is logged and counted
+	private <T> CompletableFuture<CachedResult> load(String key, Supplier<List<T>> loader, boolean refresh) {
+		CompletableFuture<CachedResult> created = new CompletableFuture<>();
+		CompletableFuture<CachedResult> existing = inFlight.putIfAbsent(key, created);
+		
+		if (existing != null) {
+			return existing; // One upstream call per key at a time; followers wait on the same future
+		}
+		
+		executor.execute(() -> {
+			try {
+				created.complete(this.store(key, loader.get()));
+				if (refresh) this.countRefresh("success");
+			} catch (Throwable e) {
+				if (refresh) {
+					log.warn("Library API cache: refresh of {} failed, serving stale", key, e);
+					this.countRefresh("error");
+				}
+				created.completeExceptionally(e);
+			} finally {
+				inFlight.remove(key, created);
+			}
+		});
+		return created;
+	}
+	
+	private void countRefresh(String outcome) {
+		meterRegistry.counter("library.cache.refresh", "outcome", outcome).increment();
+	}
+	
+	private CachedResult store(String key, List<?> value) {
+		CachedResult result = new CachedResult(new ArrayList<>(value), System.currentTimeMillis());
+		
+		localCache.put(key, result);
+		redissonClient.<CachedResult>getBucket(CACHE_PREFIX + key).set(result, staleTtl);
+		
+		return result;
+	}
+	
+	public static class CachedResult {
+		
+		private List<?> value;
+		private long fetchedAt; // epoch millis
+		
+		public CachedResult() {} // for codec
+		
+		public CachedResult(List<?> value, long fetchedAt) {
+			this.value = value;
+			this.fetchedAt = fetchedAt;
+		}
+		
+		public List<?> getValue() { return value; }
+		public long getFetchedAt() { return fetchedAt; }
+	}
+}
@@ -0,0 +1,161 @@
+package com.social.bookshare.utils;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.social.bookshare.dto.response.BookSearchResult;
+import com.social.bookshare.repository.LibraryBookRepository;
+
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Write-behind mirror of data4library.kr books into library_books.
+ * Upstream results are buffered (latest per isbn13) and upserted in JDBC batches,
+ * so repeated ISBN lookups can be answered locally while the row is fresh.
+ */
+@Component
+public class LibraryBookMirror {
+
+	private static final Logger log = LoggerFactory.getLogger(LibraryBookMirror.class);
+	private static final int MAX_ROW_ATTEMPTS = 3; // Then the row is dropped; the next upstream lookup offers it again
+
+	private static final String UPSERT_SQL = "INSERT INTO library_books"
+			+ " (isbn13, title, volume, class_nm, author, publisher, image_url, fetched_at)"
+			+ " VALUES (?, ?, ?, ?, ?, ?, ?, ?)"
+			+ " ON CONFLICT (isbn13) DO UPDATE SET"
+			+ " title = EXCLUDED.title, volume = EXCLUDED.volume, class_nm = EXCLUDED.class_nm,"
+			+ " author = EXCLUDED.author, publisher = EXCLUDED.publisher, image_url = EXCLUDED.image_url,"
+			+ " fetched_at = EXCLUDED.fetched_at";
+	
+	private final JdbcTemplate jdbcTemplate;
+	private final LibraryBookRepository libraryBookRepository;
+	private final ExecutorService executor;
+	private final Map<String, BookSearchResult> pending = new ConcurrentHashMap<>();
+	private final Map<String, Integer> failedAttempts = new ConcurrentHashMap<>();
+	private final AtomicBoolean flushing = new AtomicBoolean();
+	private final int batchSize;
+	private final int maxPending;
+	private final Duration freshFor;
+	
+	public LibraryBookMirror(JdbcTemplate jdbcTemplate, LibraryBookRepository libraryBookRepository,
+			@Qualifier("virtualThreadExecutor") ExecutorService executor,
+			@Value("${data4library.mirror.batchSize:500}") int batchSize,
+			@Value("${data4library.mirror.maxPending:20000}") int maxPending,
+			@Value("${data4library.mirror.freshFor:30d}") Duration freshFor) {
+		this.jdbcTemplate = jdbcTemplate;
+		this.libraryBookRepository = libraryBookRepository;
+		this.executor = executor;
+		this.batchSize = batchSize;
+		this.maxPending = maxPending;
+		this.freshFor = freshFor;
+	}
+	
+	/** Buffers upstream results; never blocks the caller on the DB. New ISBNs are dropped while the buffer is full */
+	public void offer(List<BookSearchResult> results) {
+		for (BookSearchResult result : results) {
+			if (result.getIsbn13() == null || result.getIsbn13().isBlank()) continue;
+			
+			if (pending.size() < maxPending || pending.containsKey(result.getIsbn13())) {
+				pending.put(result.getIsbn13(), result);
+			}
+		}
+		if (pending.size() >= batchSize) {
+			executor.execute(this::flush);
+		}
+	}
+	
+	public Optional<BookSearchResult> findFresh(String isbn13) {
+		BookSearchResult buffered = pending.get(isbn13); // Not written yet
+		if (buffered != null) {
+			return Optional.of(buffered);
+		}
+		return libraryBookRepository.findByIsbn13AndFetchedAtAfter(isbn13, LocalDateTime.now().minus(freshFor))
+				.map(BookSearchResult::from);
+	}
+	
+	@Scheduled(fixedDelayString = "${data4library.mirror.flushInterval:5s}")
+	public void flush() {
+		if (!flushing.compareAndSet(false, true)) return; // One writer at a time
+		try {
+			while (!pending.isEmpty()) {
+				List<BookSearchResult> batch = new ArrayList<>(batchSize);
+				for (String isbn13 : pending.keySet()) {
+					if (batch.size() >= batchSize) break;
+					BookSearchResult result = pending.remove(isbn13);
+					if (result != null) batch.add(result);
+				}
+				if (!this.write(batch)) {
+					break; // Failed rows were put back; they wait for the next flush
+				}
+			}
+		} finally {
+			flushing.set(false);
+		}
+	}
+	
+	@PreDestroy
+	public void flushOnShutdown() {
+		this.flush();
+	}
+	
+	/** @return false if some rows could not be written */
+	private boolean write(List<BookSearchResult> batch) {
+		Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+		ParameterizedPreparedStatementSetter<BookSearchResult> setter = (ps, book) -> {
+			ps.setString(1, book.getIsbn13());
+			ps.setString(2, book.getTitle());
+			ps.setShort(3, book.getVolume());
+			ps.setString(4, (book.getClassName() == null) ? null : book.getClassName().name());
+			ps.setString(5, book.getAuthor());
+			ps.setString(6, book.getPublisher());
+			ps.setString(7, book.getImage());
+			ps.setTimestamp(8, now);
+		};
+		
+		try {
+			jdbcTemplate.batchUpdate(UPSERT_SQL, batch, batch.size(), setter);
+			batch.forEach(book -> failedAttempts.remove(book.getIsbn13()));
+			return true;
+		} catch (RuntimeException e) {
+			// Row by row, so one bad row cannot hold back the rest of the batch
+			boolean allWritten = true;
+			for (BookSearchResult book : batch) {
+				try {
+					jdbcTemplate.update(UPSERT_SQL, ps -> setter.setValues(ps, book));
+					failedAttempts.remove(book.getIsbn13());
+				} catch (RuntimeException rowError) {
+					allWritten = false;
+					this.retryLater(book, rowError);
+				}
+			}
+			return allWritten;
+		}
+	}
+	
+	private void retryLater(BookSearchResult book, RuntimeException e) {
+		int attempts = failedAttempts.merge(book.getIsbn13(), 1, Integer::sum);
+		if (attempts >= MAX_ROW_ATTEMPTS) {
+			failedAttempts.remove(book.getIsbn13());
+			log.warn("library_books: dropped {} after {} failed writes", book.getIsbn13(), attempts, e);
+		} else {
+			pending.putIfAbsent(book.getIsbn13(), book);
+		}
+	}
+}
@@ -0,0 +1,171 @@
+package com.social.bookshare.utils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.social.bookshare.client.LibraryCatalogClient;
+import com.social.bookshare.dto.response.LibraryByBookResponse;
+
+/**
+ * Every data4library library once, by libCode, with coordinates parsed to doubles.
+ * Warmed at startup from a local CSV dump (if configured) and the libSrch API, refreshed on a schedule,
+ * and topped up by per-ISBN lookups; those then only need to cache library codes.
+ */
+@Component
+public class LibraryRegistry {
+
+	private static final Logger log = LoggerFactory.getLogger(LibraryRegistry.class);
+	private static final int MAX_PAGES = 100; // ~1,200 public libraries nationwide; stops a runaway pager
+
+	private final LibraryCatalogClient libraryCatalogClient;
+	private final ExecutorService executor;
+	private final Map<String, Library> libraries = new ConcurrentHashMap<>();
+	private final AtomicBoolean refreshing = new AtomicBoolean();
+	private final String dumpPath;
+	private final int pageSize;
+
+	public LibraryRegistry(LibraryCatalogClient libraryCatalogClient,
+			@Qualifier("virtualThreadExecutor") ExecutorService executor,
+			@Value("${data4library.registry.dump:}") String dumpPath,
+			@Value("${data4library.registry.pageSize:1000}") int pageSize) {
+		this.libraryCatalogClient = libraryCatalogClient;
+		this.executor = executor;
+		this.dumpPath = dumpPath;
+		this.pageSize = pageSize;
+	}
+
+	public static final class Library {
+
+		private final String code;
+		private final String name;
+		private final String address;
+		private final double lat; // NaN when upstream has no coordinates
+		private final double lon;
+
+		private Library(String code, String name, String address, double lat, double lon) {
+			this.code = code;
+			this.name = name;
+			this.address = address;
+			this.lat = lat;
+			this.lon = lon;
+		}
+
+		public String getCode() { return code; }
+		public String getName() { return name; }
+		public String getAddress() { return address; }
+		public double getLat() { return lat; }
+		public double getLon() { return lon; }
+	}
+
+	@EventListener(ApplicationReadyEvent.class)
+	public void warmUp() {
+		executor.execute(() -> {
+			if (!dumpPath.isBlank()) {
+				try {
+					this.loadDump(Path.of(dumpPath));
+				} catch (RuntimeException e) { // The API warm-up still runs
+					log.warn("Library dump not loaded: {}", dumpPath, e);
+				}
+			}
+			try {
+				this.refresh();
+			} catch (RuntimeException e) {
+				log.warn("Library list not fetched at startup; per-ISBN lookups fill the registry meanwhile", e);
+			}
+		});
+	}
+
+	/** Re-reads the whole list upstream; on failure the current entries stay */
+	@Scheduled(fixedDelayString = "${data4library.registry.refreshInterval:1d}", initialDelayString = "${data4library.registry.refreshInterval:1d}")
+	public void refresh() {
+		if (!refreshing.compareAndSet(false, true)) return;
+		try {
+			Map<String, Library> fetched = new HashMap<>();
+			for (int pageNo = 1; pageNo <= MAX_PAGES; pageNo++) {
+				List<LibraryByBookResponse.LibInfo> page = libraryCatalogClient.findLibraries(pageNo, pageSize).join();
+				for (LibraryByBookResponse.LibInfo info : page) {
+					Library library = from(info);
+					if (library != null) fetched.put(library.code, library);
+				}
+				if (page.size() < pageSize) break;
+			}
+			libraries.putAll(fetched); // Closed libraries linger until restart; cached codes may still point at them
+		} finally {
+			refreshing.set(false);
+		}
+	}
+
+	/** Libraries seen in a per-ISBN lookup, so their codes always resolve */
+	public void register(List<LibraryByBookResponse.LibInfo> infos) {
+		for (LibraryByBookResponse.LibInfo info : infos) {
+			Library library = from(info);
+			if (library != null) libraries.put(library.code, library);
+		}
+	}
+
+	/** Libraries for the codes, in order; empty if any code is unknown here (the caller refetches and registers) */
+	public Optional<List<Library>> resolve(List<String> codes) {
+		List<Library> resolved = new ArrayList<>(codes.size());
+		for (String code : codes) {
+			Library library = libraries.get(code);
+			if (library == null) return Optional.empty();
+			resolved.add(library);
+		}
+		return Optional.of(resolved);
+	}
+
+	public int size() {
+		return libraries.size();
+	}
+
+	// CSV with a header: libCode, libName, address, latitude, longitude (as the libSrch fields)
+	private void loadDump(Path path) {
+		try {
+			for (Map<String, String> row : CsvUtils.parse(Files.readString(path, StandardCharsets.UTF_8))) {
+				String code = row.get("libcode");
+				if (code == null) continue;
+
+				libraries.putIfAbsent(code, new Library(code, row.get("libname"), row.get("address"),
+						parseCoordinate(row.get("latitude")), parseCoordinate(row.get("longitude"))));
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException("Library dump not readable: " + path, e);
+		}
+	}
+
+	private static Library from(LibraryByBookResponse.LibInfo info) {
+		if (info == null || info.getLibCode() == null || info.getLibCode().isBlank()) {
+			return null;
+		}
+		return new Library(info.getLibCode().strip(), info.getLibName(), info.getAddress(),
+				parseCoordinate(info.getLatitude()), parseCoordinate(info.getLongitude()));
+	}
+
+	private static double parseCoordinate(String value) {
+		try {
+			return (value == null) ? Double.NaN : Double.parseDouble(value.strip());
+		} catch (NumberFormatException e) {
+			return Double.NaN;
+		}
+	}
+}
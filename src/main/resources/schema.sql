@@ -2,14 +2,52 @@
 CREATE EXTENSION IF NOT EXISTS postgis;
 CREATE EXTENSION IF NOT EXISTS pg_trgm;
 
--- ISBN search optimization
-CREATE INDEX IF NOT EXISTS idx_user_books_isbn ON user_books(isbn13);
+-- Pooled id sequences (entities use @SequenceGenerator allocationSize = 50, so Hibernate can batch inserts).
+-- Run before deploying the sequence-based entities: drops the IDENTITY default and continues ids after MAX(id).
+-- nextval stays the column default for plain SQL inserts; its ids never fall in a range Hibernate has taken.
+-- Safe to re-run: setval never moves a sequence back, as blocks handed out but not yet written are above MAX(id).
+DO $$
+DECLARE
+	t text;
+BEGIN
+	FOREACH t IN ARRAY ARRAY['users', 'user_keys', 'user_locations', 'books', 'user_books', 'loan_histories'] LOOP
+		EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I INCREMENT BY 50', t || '_seq');
+		EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+		EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L)', t, t || '_seq');
+		EXECUTE format('SELECT setval(%L, GREATEST((SELECT COALESCE(MAX(id), 0) + 50 FROM %I), (SELECT last_value FROM %I)))',
+				t || '_seq', t, t || '_seq');
+	END LOOP;
+END $$;
 
--- Create GIST indexes (radius search optimization)
+-- ISBN search optimization (user_books reference books by book_id; there is no user_books.isbn13)
+DROP INDEX IF EXISTS idx_user_books_isbn;
+CREATE INDEX IF NOT EXISTS idx_user_books_book_status ON user_books(book_id, status);
+
+-- Create GIST indexes (radius search optimization, KNN <-> ordering of nearest owners)
 CREATE INDEX IF NOT EXISTS idx_user_locations_location ON user_locations USING GIST(location);
+-- Radius search in meters (findNearbyLocations): ST_DWithin on geography can only use an index on the same expression
+CREATE INDEX IF NOT EXISTS idx_user_locations_geography_active ON user_locations USING GIST((location::geography)) WHERE is_active;
 
 -- CREATE GIN indexes (text partial corresponding search)
 -- book title
 CREATE INDEX IF NOT EXISTS idx_books_title_trgm_gin ON books USING GIN (title gin_trgm_ops);
+-- book title keyset pagination (ORDER BY title, isbn13)
+CREATE INDEX IF NOT EXISTS idx_books_title_isbn ON books (title, isbn13);
+-- book author, publisher
+CREATE INDEX IF NOT EXISTS idx_books_author_trgm_gin ON books USING GIN (author gin_trgm_ops);
+CREATE INDEX IF NOT EXISTS idx_books_publisher_trgm_gin ON books USING GIN (publisher gin_trgm_ops);
+
+-- Full-text search (ranked keyword search). 'simple' config: no stemming, works for Korean and Latin words alike.
+-- Generated column, so it stays current on every insert/update without triggers.
+ALTER TABLE books ADD COLUMN IF NOT EXISTS search_vector tsvector
+	GENERATED ALWAYS AS (
+		setweight(to_tsvector('simple', coalesce(title, '')), 'A') ||
+		setweight(to_tsvector('simple', coalesce(author, '')), 'B') ||
+		setweight(to_tsvector('simple', coalesce(publisher, '')), 'C')
+	) STORED;
+CREATE INDEX IF NOT EXISTS idx_books_search_vector_gin ON books USING GIN (search_vector);
 -- refresh token (now redis)
--- CREATE INDEX IF NOT EXISTS idx_refresh_tokens_token_trgm_gin ON refresh_tokens USING GIN (token gin_trgm_ops);
\ No newline at end of file
+-- CREATE INDEX IF NOT EXISTS idx_refresh_tokens_token_trgm_gin ON refresh_tokens USING GIN (token gin_trgm_ops);
+
+-- Mirror of data4library books (table created by JPA, LibraryBook); stale rows are refreshed by upsert
+CREATE INDEX IF NOT EXISTS idx_library_books_fetched_at ON library_books(fetched_at);
\ No newline at end of file
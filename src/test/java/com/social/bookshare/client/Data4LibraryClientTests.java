@@ -0,0 +1,185 @@
+package com.social.bookshare.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.social.bookshare.client.impl.Data4LibraryClient;
+import com.social.bookshare.dto.response.BookSearchResult;
+import com.social.bookshare.dto.response.LibraryByBookResponse;
+
+class Data4LibraryClientTests {
+
+	private LibraryStubServer stub;
+	private ExecutorService executor;
+	private Data4LibraryClient client;
+	
+	@BeforeEach
+	void setUp() throws Exception {
+		stub = new LibraryStubServer();
+		executor = Executors.newVirtualThreadPerTaskExecutor();
+		client = new Data4LibraryClient(executor, stub.apiUrl(), "test-key", 
+				Duration.ofSeconds(1), Duration.ofMillis(300), 3, Duration.ofMillis(10), 2, Duration.ofMinutes(1));
+	}
+	
+	@AfterEach
+	void tearDown() {
+		stub.close();
+		executor.close();
+	}
+	
+	@Test
+	void parsesBooksAndLibraries() {
+		List<BookSearchResult> books = client.searchBooks(null, "stub", null, null, null, 10).join();
+		List<LibraryByBookResponse.LibInfo> libs = client.findLibrariesByIsbn("9780000000001", 10).join();
+		
+		assertThat(books).extracting(BookSearchResult::getIsbn13).containsExactly("9780000000001");
+		assertThat(books.get(0).fromLibrary()).isTrue();
+		assertThat(libs).extracting(LibraryByBookResponse.LibInfo::getLibName).containsExactly("Stub Library");
+		assertThat(libs).extracting(LibraryByBookResponse.LibInfo::getLibCode).containsExactly("111001");
+	}
+	
+	@Test
+	void parsesLibraryList() {
+		List<LibraryByBookResponse.LibInfo> libs = client.findLibraries(1, 1000).join();
+		
+		assertThat(libs).extracting(LibraryByBookResponse.LibInfo::getLibCode).containsExactly("111001");
+		assertThat(libs.get(0).getLatitude()).isEqualTo("37.5");
+	}
+	
+	@Test
+	void retriesServerErrors() {
+		stub.failNext(2, 503);
+		
+		assertThat(client.findLibrariesByIsbn("9780000000001", 10).join()).hasSize(1);
+		assertThat(stub.requestCount()).isEqualTo(3);
+	}
+	
+	@Test
+	void doesNotRetryClientErrors() {
+		stub.failNext(1, 400);
+		
+		assertThatThrownBy(() -> client.findLibrariesByIsbn("9780000000001", 10).join())
+				.isInstanceOf(CompletionException.class)
+				.hasCauseInstanceOf(HttpClientErrorException.class);
+		assertThat(stub.requestCount()).isEqualTo(1);
+		assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+	}
+	
+	@Test
+	void retriesQuotaErrorsAfterRetryAfter() {
+		stub.failNext(1, 429);
+		stub.setRetryAfter("1");
+		long start = System.nanoTime();
+		
+		assertThat(client.findLibrariesByIsbn("9780000000001", 10).join()).hasSize(1);
+		assertThat(stub.requestCount()).isEqualTo(2);
+		assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofSeconds(1));
+	}
+	
+	@Test
+	void quotaErrorsTripTheBreaker() {
+		Data4LibraryClient breakerClient = this.breakerClient(1);
+		stub.failNext(3, 429);
+		
+		assertThatThrownBy(() -> breakerClient.findLibrariesByIsbn("9780000000001", 10).join())
+				.hasCauseInstanceOf(HttpClientErrorException.TooManyRequests.class);
+		assertThat(stub.requestCount()).isEqualTo(3);
+		assertThat(breakerClient.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+	
+	@Test
+	void malformedBodyTripsTheBreakerWithoutRetry() {
+		Data4LibraryClient breakerClient = this.breakerClient(1);
+		stub.malformedNext(1);
+		
+		assertThatThrownBy(() -> breakerClient.findLibrariesByIsbn("9780000000001", 10).join())
+				.isInstanceOf(CompletionException.class);
+		assertThat(stub.requestCount()).isEqualTo(1);
+		assertThat(breakerClient.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+	}
+	
+	@Test
+	void readTimeoutFailsAfterRetries() {
+		stub.setLatency(Duration.ofSeconds(1));
+		
+		assertThatThrownBy(() -> client.findLibrariesByIsbn("9780000000001", 10).join())
+				.hasCauseInstanceOf(ResourceAccessException.class);
+		assertThat(stub.requestCount()).isEqualTo(3);
+	}
+	
+	@Test
+	void opensCircuitAfterConsecutiveFailures() {
+		stub.failNext(6, 503);
+		
+		for (int i = 0; i < 2; i++) {
+			assertThatThrownBy(() -> client.findLibrariesByIsbn("9780000000001", 10).join())
+					.hasCauseInstanceOf(HttpServerErrorException.class);
+		}
+		int requestsWhenOpened = stub.requestCount();
+		
+		assertThat(client.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+		assertThatThrownBy(() -> client.findLibrariesByIsbn("9780000000001", 10).join())
+				.hasCauseInstanceOf(IllegalStateException.class);
+		assertThat(stub.requestCount()).isEqualTo(requestsWhenOpened); // Rejected without a request
+	}
+	
+	@Test
+	void interruptedTrialReleasesHalfOpenCircuit() throws Exception {
+		List<Thread> workers = new CopyOnWriteArrayList<>();
+		try (ExecutorService recording = Executors.newThreadPerTaskExecutor(task -> {
+			Thread worker = Thread.ofVirtual().unstarted(task);
+			workers.add(worker);
+			return worker;
+		})) {
+			// One failure opens; backoff long enough to be interrupted in
+			Data4LibraryClient breakerClient = new Data4LibraryClient(recording, stub.apiUrl(), "test-key", 
+					Duration.ofSeconds(1), Duration.ofMillis(300), 2, Duration.ofSeconds(10), 1, Duration.ofMillis(100));
+			stub.failNext(100, 503);
+			
+			this.interruptWhileRetrying(breakerClient, workers);
+			assertThat(breakerClient.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+			
+			Thread.sleep(150);
+			this.interruptWhileRetrying(breakerClient, workers); // HALF_OPEN trial
+			assertThat(breakerClient.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+			
+			Thread.sleep(150);
+			stub.failNext(0, 503);
+			assertThat(breakerClient.findLibrariesByIsbn("9780000000001", 10).join()).hasSize(1); // Next trial let through
+			assertThat(breakerClient.getCircuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+		}
+	}
+	
+	private void interruptWhileRetrying(Data4LibraryClient breakerClient, List<Thread> workers) throws InterruptedException {
+		CountDownLatch answered = stub.expectAnswers(1);
+		CompletableFuture<List<LibraryByBookResponse.LibInfo>> call = breakerClient.findLibrariesByIsbn("9780000000001", 10);
+		
+		// 503 written: the worker is reading it or already in backoff, and either way the interrupt ends the call
+		assertThat(answered.await(5, TimeUnit.SECONDS)).isTrue();
+		workers.get(workers.size() - 1).interrupt();
+		
+		assertThatThrownBy(call::join).isInstanceOf(CompletionException.class);
+	}
+	
+	private Data4LibraryClient breakerClient(int failureThreshold) {
+		return new Data4LibraryClient(executor, stub.apiUrl(), "test-key", 
+				Duration.ofSeconds(1), Duration.ofMillis(300), 3, Duration.ofMillis(10), failureThreshold, Duration.ofMinutes(1));
+	}
+}
@@ -0,0 +1,100 @@
+package com.social.bookshare.client;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Local data4library stand-in. Latency and failures are scriptable, so client tests never touch the network.
+ */
+public class LibraryStubServer implements AutoCloseable {
+
+	static final String SRCH_BOOKS_JSON = """
+			{"response":{"docs":[{"doc":{"bookname":"Stub Book","class_nm":"literature","volume":"1",
+			"authors":"Stub Author","publisher":"Stub Press","isbn13":"9780000000001","bookImageURL":""}}]}}
+			""";
+	static final String LIB_SRCH_JSON = """
+			{"response":{"libs":[{"lib":{"libCode":"111001","libName":"Stub Library","address":"Seoul","latitude":"37.5","longitude":"127.0"}}]}}
+			""";
+	
+	private final HttpServer server;
+	private final AtomicInteger requests = new AtomicInteger();
+	private final AtomicInteger failuresLeft = new AtomicInteger();
+	private final AtomicInteger malformedLeft = new AtomicInteger();
+	private volatile int failureStatus = 503;
+	private volatile String retryAfter;
+	private volatile Duration latency = Duration.ZERO;
+	private volatile CountDownLatch answered = new CountDownLatch(0);
+	
+	public LibraryStubServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+		server.createContext("/api/srchBooks", exchange -> this.handle(exchange, SRCH_BOOKS_JSON));
+		server.createContext("/api/libSrchByBook", exchange -> this.handle(exchange, LIB_SRCH_JSON));
+		server.createContext("/api/libSrch", exchange -> this.handle(exchange, LIB_SRCH_JSON));
+		server.start();
+	}
+	
+	public String apiUrl() {
+		return "http://127.0.0.1:" + server.getAddress().getPort() + "/api";
+	}
+	
+	/** The next n requests answer with the given status */
+	public void failNext(int n, int status) {
+		failureStatus = status;
+		failuresLeft.set(n);
+	}
+	
+	/** The next n requests answer 200 with a body that is not JSON */
+	public void malformedNext(int n) {
+		malformedLeft.set(n);
+	}
+	
+	/** Counted down each time a response has been written, so tests can act while the client handles it */
+	public CountDownLatch expectAnswers(int n) {
+		answered = new CountDownLatch(n);
+		return answered;
+	}
+	
+	public void setRetryAfter(String retryAfter) { this.retryAfter = retryAfter; }
+	public void setLatency(Duration latency) { this.latency = latency; }
+	public int requestCount() { return requests.get(); }
+	
+	private void handle(HttpExchange exchange, String body) throws IOException {
+		requests.incrementAndGet();
+		try {
+			Thread.sleep(latency);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		
+		boolean fail = failuresLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0;
+		boolean malformed = !fail && malformedLeft.getAndUpdate(n -> Math.max(0, n - 1)) > 0;
+		byte[] bytes = (fail ? "{}" : malformed ? "<html>quota" : body).getBytes(StandardCharsets.UTF_8);
+		
+		exchange.getResponseHeaders().set("Content-Type", "application/json");
+		if (fail && retryAfter != null) {
+			exchange.getResponseHeaders().set("Retry-After", retryAfter);
+		}
+		exchange.sendResponseHeaders(fail ? failureStatus : 200, bytes.length);
+		try (OutputStream out = exchange.getResponseBody()) {
+			out.write(bytes);
+		} catch (IOException e) {
+			// Client gave up (read timeout)
+		}
+		answered.countDown();
+	}
+	
+	@Override
+	public void close() {
+		server.stop(0);
+	}
+}
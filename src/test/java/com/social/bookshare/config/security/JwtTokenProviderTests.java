@@ -0,0 +1,111 @@
+package com.social.bookshare.config.security;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.social.bookshare.domain.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class JwtTokenProviderTests {
+
+	private UserDetailsService userDetailsService;
+	private RedissonClient redissonClient;
+	private VerifiedTokenCache tokenCache;
+
+	@BeforeEach
+	@SuppressWarnings("unchecked")
+	void setUp() {
+		userDetailsService = mock(UserDetailsService.class);
+		redissonClient = mock(RedissonClient.class);
+		tokenCache = new VerifiedTokenCache(true, 100, new SimpleMeterRegistry());
+
+		RBucket<Object> noMark = mock(RBucket.class);
+		doReturn(noMark).when(redissonClient).getBucket(anyString());
+	}
+
+	@Test
+	void cachesClaimsDerivedPrincipal() {
+		JwtTokenProvider provider = this.provider(true);
+		String token = provider.createAccessToken(1L, "user@test.com", "USER");
+
+		Authentication first = provider.authenticate(token);
+		Authentication second = provider.authenticate(token);
+
+		assertThat(tokenCache.get(token)).isNotNull();
+		assertThat(second.getPrincipal()).isSameAs(first.getPrincipal());
+		verify(userDetailsService, never()).loadUserByUsername(anyString());
+	}
+
+	@Test
+	void doesNotCacheDatabaseLoadedPrincipal() {
+		JwtTokenProvider provider = this.provider(false);
+		String token = provider.createAccessToken(1L, "user@test.com", "USER");
+		User user = mock(User.class);
+		when(user.getId()).thenReturn(1L);
+		when(user.getEmail()).thenReturn("user@test.com");
+		when(user.getPassword()).thenReturn("{bcrypt}hash");
+		when(user.getRole()).thenReturn(User.Role.USER);
+		when(userDetailsService.loadUserByUsername("user@test.com")).thenAnswer(invocation -> new PrincipalDetails(user));
+
+		assertThat(provider.authenticate(token)).isNotNull();
+		assertThat(provider.authenticate(token)).isNotNull();
+
+		assertThat(tokenCache.get(token)).isNull();
+		verify(userDetailsService, times(2)).loadUserByUsername("user@test.com");
+	}
+
+	@Test
+	void revokesTokensIssuedInTheSameSecond() {
+		JwtTokenProvider provider = this.provider(true);
+		String token = provider.createAccessToken(1L, "user@test.com", "USER");
+		assertThat(provider.authenticate(token)).isNotNull(); // Now in the verified token cache
+
+		provider.revokeAccessTokens(1L);
+		long revokedAt = System.currentTimeMillis();
+		while (System.currentTimeMillis() <= revokedAt) {
+			Thread.onSpinWait(); // Next millisecond, not next second
+		}
+		String reissued = provider.createAccessToken(1L, "user@test.com", "USER");
+
+		assertThat(provider.authenticate(token)).isNull();
+		assertThat(provider.authenticate(reissued)).isNotNull();
+	}
+
+	@Test
+	void statelessPrincipalRequiresRevocationCheck() {
+		assertThatThrownBy(() -> this.provider(true, false)).isInstanceOf(IllegalStateException.class);
+	}
+
+	private JwtTokenProvider provider(boolean statelessPrincipal) {
+		return this.provider(statelessPrincipal, true);
+	}
+
+	private JwtTokenProvider provider(boolean statelessPrincipal, boolean revocationCheck) {
+		JwtTokenProvider provider = new JwtTokenProvider(userDetailsService, redissonClient, new SimpleMeterRegistry(), tokenCache);
+		ReflectionTestUtils.setField(provider, "secretKey", "test-secret-key-of-at-least-256-bits!!");
+		ReflectionTestUtils.setField(provider, "accessTokenValidTime", 3_600_000L);
+		ReflectionTestUtils.setField(provider, "statelessPrincipal", statelessPrincipal);
+		ReflectionTestUtils.setField(provider, "revocationCheck", revocationCheck);
+		ReflectionTestUtils.setField(provider, "revocationCacheTtl", Duration.ofSeconds(5));
+		provider.init();
+		return provider;
+	}
+}
@@ -0,0 +1,111 @@
+package com.social.bookshare.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfEnvironmentVariable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import com.social.bookshare.domain.Book.Kdc;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * The planner must pick an index for the generated search SQL, for every filter combination.
+ * Needs a PostgreSQL with pg_trgm: TEST_DB_URL (jdbc:postgresql://...), TEST_DB_USER, TEST_DB_PASSWORD.
+ * Values are inlined so the captured SQL can be EXPLAINed as is. The table is seeded and analyzed,
+ * and the plan comes from the default planner settings, so a seq scan that is really cheaper would fail the test.
+ */
+@DataJpaTest(properties = {
+		"spring.jpa.properties.hibernate.criteria.value_handling_mode=inline",
+		"spring.jpa.properties.hibernate.session_factory.statement_inspector=com.social.bookshare.repository.BookRepositoryCustomImplTests$SqlCapture"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@EnabledIfEnvironmentVariable(named = "TEST_DB_URL", matches = ".+")
+class BookRepositoryCustomImplTests {
+
+	private static final int SEEDED_BOOKS = 50_000; // Hex titles: the searched words are selective, as real ones are
+
+	@DynamicPropertySource
+	static void datasource(DynamicPropertyRegistry registry) {
+		registry.add("spring.datasource.url", () -> System.getenv("TEST_DB_URL"));
+		registry.add("spring.datasource.username", () -> System.getenv("TEST_DB_USER"));
+		registry.add("spring.datasource.password", () -> System.getenv("TEST_DB_PASSWORD"));
+	}
+	
+	@Autowired
+	private BookRepository bookRepository;
+	
+	@Autowired
+	private EntityManager entityManager;
+	
+	@BeforeEach
+	void setUp() {
+		entityManager.createNativeQuery("CREATE EXTENSION IF NOT EXISTS pg_trgm").executeUpdate();
+		entityManager.createNativeQuery("CREATE INDEX IF NOT EXISTS idx_books_title_trgm_gin ON books USING GIN (title gin_trgm_ops)").executeUpdate();
+		entityManager.createNativeQuery("CREATE INDEX IF NOT EXISTS idx_books_author_trgm_gin ON books USING GIN (author gin_trgm_ops)").executeUpdate();
+		entityManager.createNativeQuery("CREATE INDEX IF NOT EXISTS idx_books_publisher_trgm_gin ON books USING GIN (publisher gin_trgm_ops)").executeUpdate();
+		// Rolled back with the test transaction; ANALYZE counts this transaction's own rows
+		entityManager.createNativeQuery("INSERT INTO books (id, isbn13, title, volume, class_nm, author, publisher)"
+				+ " SELECT nextval('books_seq'), lpad(i::text, 13, '0'), md5(i::text) || ' ' || md5((i + 1)::text), 1,"
+				+ " (ARRAY['GENERALIA', 'LITERATURE', 'HISTORY', 'ARTS'])[1 + i % 4], md5((i * 7)::text), md5((i * 13)::text)"
+				+ " FROM generate_series(1, " + SEEDED_BOOKS + ") AS i").executeUpdate();
+		entityManager.createNativeQuery("ANALYZE books").executeUpdate();
+	}
+	
+	@Test
+	void titleOnlyUsesTitleTrigramIndex() {
+		String plan = this.explain(() -> bookRepository.searchBooks(null, "river", null, null, null, null, false));
+		
+		assertThat(plan).contains("idx_books_title_trgm_gin").doesNotContain("Seq Scan");
+	}
+	
+	@Test
+	void strictAuthorAndPublisherUseTrigramIndexes() {
+		String plan = this.explain(() -> bookRepository.searchBooks(null, null, null, Kdc.LITERATURE, "Han Kang", "Changbi", true));
+		
+		assertThat(plan).containsAnyOf("idx_books_author_trgm_gin", "idx_books_publisher_trgm_gin").doesNotContain("Seq Scan");
+	}
+	
+	@Test
+	void isbnOrFieldsCombinesIndexes() {
+		String plan = this.explain(() -> bookRepository.searchBooks("9788936434120", "river", (short) 1, null, null, null, false));
+		
+		assertThat(plan).contains("BitmapOr").doesNotContain("Seq Scan");
+	}
+	
+	@Test
+	void isbnOnlyEmitsNoTextPredicate() {
+		String plan = this.explain(() -> bookRepository.searchBooks("9788936434120", null, (short) 1, null, null, null, false));
+		
+		assertThat(SqlCapture.last).doesNotContainIgnoringCase("ilike");
+		assertThat(plan).doesNotContain("Seq Scan");
+	}
+	
+	private String explain(Runnable search) {
+		search.run();
+		
+		@SuppressWarnings("unchecked")
+		List<Object> rows = entityManager.createNativeQuery("EXPLAIN " + SqlCapture.last).getResultList();
+		return String.join("\n", rows.stream().map(String::valueOf).toList());
+	}
+	
+	public static class SqlCapture implements StatementInspector {
+		
+		static volatile String last;
+		
+		@Override
+		public String inspect(String sql) {
+			if (sql.contains("from books")) last = sql;
+			return sql;
+		}
+	}
+}
@@ -0,0 +1,164 @@
+package com.social.bookshare.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+
+import com.social.bookshare.repository.BookRepository;
+import com.social.bookshare.repository.BookRepository.BookLocationProjection;
+
+class BookLocationCacheTests {
+
+	private static final String ISBN = "9788936434120";
+	private static final double METERS_PER_DEGREE = 111_195.0;
+
+	private BookRepository bookRepository;
+	private GeometryUtils geometryUtils;
+	private BookLocationCache cache;
+	private final List<Owner> owners = new ArrayList<>(); // The "database", queried by box as PostGIS would
+	private Runnable duringLoad = () -> {};
+
+	// The precision-5 cell holding central Seoul
+	private double[] cell;
+	private double centerLat;
+	private double centerLon;
+
+	@BeforeEach
+	void setUp() {
+		bookRepository = mock(BookRepository.class);
+		geometryUtils = new GeometryUtils(new GeometryFactory());
+		RedissonClient redissonClient = mock(RedissonClient.class);
+		when(redissonClient.getTopic(anyString())).thenReturn(mock(RTopic.class));
+		cache = new BookLocationCache(bookRepository, geometryUtils, redissonClient, 10_000, Duration.ofMinutes(10));
+
+		when(bookRepository.findPrivateBookLocationsInBox(eq(ISBN), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+				.thenAnswer(invocation -> {
+					double minLat = invocation.getArgument(1), minLon = invocation.getArgument(2);
+					double maxLat = invocation.getArgument(3), maxLon = invocation.getArgument(4);
+					duringLoad.run();
+					return owners.stream()
+							.filter(o -> o.lat >= minLat && o.lat <= maxLat && o.lon >= minLon && o.lon <= maxLon)
+							.map(BookLocationProjection.class::cast)
+							.toList();
+				});
+
+		cell = GeoHashUtils.bounds(GeoHashUtils.encode(37.5665, 126.9780, 5));
+		centerLat = (cell[0] + cell[2]) / 2;
+		centerLon = (cell[1] + cell[3]) / 2;
+	}
+
+	@Test
+	void servesAProvablyCompleteBlockFromCache() {
+		this.ownerAt("north", centerLat, centerLon, 300, 0);
+		this.ownerAt("east", centerLat, centerLon, 0, 600);
+
+		Optional<List<BookLocationProjection>> first = cache.findNearest(ISBN, centerLat, centerLon, null, 2);
+		Optional<List<BookLocationProjection>> second = cache.findNearest(ISBN, centerLat, centerLon, null, 2);
+
+		assertThat(first).isPresent();
+		assertThat(first.get()).extracting(BookLocationProjection::getOwner).containsExactly("north", "east");
+		assertThat(first.get().get(0).getDistance()).isCloseTo(0.3, within(0.01)); // km
+		assertThat(second.get()).extracting(BookLocationProjection::getOwner).containsExactly("north", "east");
+		verify(bookRepository, times(1)).findPrivateBookLocationsInBox(eq(ISBN), anyDouble(), anyDouble(), anyDouble(), anyDouble());
+	}
+
+	@Test
+	void shortPageIsNotProvedAndGoesToTheDatabase() {
+		this.ownerAt("near", centerLat, centerLon, 300, 0);
+		this.ownerAt("outside", centerLat, centerLon, 20_000, 0); // Beyond the block; the box query never sees it
+
+		assertThat(cache.findNearest(ISBN, centerLat, centerLon, null, 2)).isEmpty();
+	}
+
+	@Test
+	void pageReachingPastTheBlockEdgeIsNotProved() {
+		// In the block's north-east cell, but farther than the nearest block edge: someone outside could be nearer
+		double height = (cell[2] - cell[0]) * METERS_PER_DEGREE;
+		double width = (cell[3] - cell[1]) * METERS_PER_DEGREE * Math.cos(Math.toRadians(centerLat));
+		this.ownerAt("corner", centerLat, centerLon, 1.4 * height, 1.4 * width);
+
+		assertThat(cache.findNearest(ISBN, centerLat, centerLon, null, 1)).isEmpty();
+		// A radius inside the block is proved, however few owners it holds
+		assertThat(cache.findNearest(ISBN, centerLat, centerLon, 1_000.0, 1)).contains(List.of());
+	}
+
+	@Test
+	void userNearACellCornerSeesOwnersAcrossIt() {
+		double userLat = cell[0] + 0.00001;
+		double userLon = cell[1] + 0.00001;
+		this.ownerAt("across", userLat, userLon, -150, -150); // In the south-west neighbour cell
+		this.ownerAt("same", userLat, userLon, 400, 400);
+
+		Optional<List<BookLocationProjection>> found = cache.findNearest(ISBN, userLat, userLon, null, 2);
+
+		assertThat(GeoHashUtils.encode(owners.get(0).lat, owners.get(0).lon, 5)).isNotEqualTo(GeoHashUtils.encode(userLat, userLon, 5));
+		assertThat(found).isPresent();
+		assertThat(found.get()).extracting(BookLocationProjection::getOwner).containsExactly("across", "same");
+	}
+
+	@Test
+	void loadRacingAnEvictionIsNotCached() {
+		this.ownerAt("north", centerLat, centerLon, 300, 0);
+		duringLoad = () -> cache.evict(ISBN, geometryUtils.createPoint(centerLon, centerLat)); // Committed while the box query ran
+		assertThat(cache.findNearest(ISBN, centerLat, centerLon, null, 1)).isPresent(); // This caller still gets its rows
+
+		duringLoad = () -> {};
+		assertThat(cache.findNearest(ISBN, centerLat, centerLon, null, 1)).isPresent();
+		cache.findNearest(ISBN, centerLat, centerLon, null, 1);
+
+		// Reloaded once after the raced load, then cached
+		verify(bookRepository, times(2)).findPrivateBookLocationsInBox(eq(ISBN), anyDouble(), anyDouble(), anyDouble(), anyDouble());
+	}
+
+	@Test
+	void evictionDropsTheCell() {
+		this.ownerAt("north", centerLat, centerLon, 300, 0);
+		cache.findNearest(ISBN, centerLat, centerLon, null, 1);
+
+		cache.evictCell(geometryUtils.createPoint(centerLon, centerLat));
+		cache.findNearest(ISBN, centerLat, centerLon, null, 1);
+
+		verify(bookRepository, times(2)).findPrivateBookLocationsInBox(eq(ISBN), anyDouble(), anyDouble(), anyDouble(), anyDouble());
+	}
+
+	@Test
+	void polesAndAntimeridianFallBackToTheDatabase() {
+		assertThat(cache.findNearest(ISBN, 89.99, 10, null, 1)).isEmpty();
+		verify(bookRepository, never()).findPrivateBookLocationsInBox(anyString(), anyDouble(), anyDouble(), anyDouble(), anyDouble());
+
+		this.ownerAt("dateline", 0.02, 179.98, 100, 0);
+		assertThat(cache.findNearest(ISBN, 0.02, 179.98, null, 1)).isEmpty(); // Wrapped block: no coverage proved
+	}
+
+	private void ownerAt(String name, double lat, double lon, double northMeters, double eastMeters) {
+		owners.add(new Owner(name, lat + northMeters / METERS_PER_DEGREE,
+				lon + eastMeters / (METERS_PER_DEGREE * Math.cos(Math.toRadians(lat)))));
+	}
+
+	private record Owner(String owner, double lat, double lon) implements BookLocationProjection {
+		@Override public String getOwner() { return owner; }
+		@Override public String getLabel() { return owner; }
+		@Override public String getAddress() { return null; }
+		@Override public Double getLon() { return lon; }
+		@Override public Double getLat() { return lat; }
+		@Override public Double getDistance() { return null; }
+	}
+}
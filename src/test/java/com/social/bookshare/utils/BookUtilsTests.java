@@ -0,0 +1,35 @@
+package com.social.bookshare.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class BookUtilsTests {
+
+	@Test
+	void keepsIsbn13() {
+		assertThat(BookUtils.toIsbn13("978-0-306-40615-7")).isEqualTo("9780306406157");
+		assertThat(BookUtils.toIsbn13(" 9780306406157 ")).isEqualTo("9780306406157");
+	}
+	
+	@Test
+	void convertsIsbn10WithRecomputedCheckDigit() {
+		assertThat(BookUtils.toIsbn13("0-306-40615-2")).isEqualTo("9780306406157");
+		assertThat(BookUtils.toIsbn13("0 8044 2957 x")).isEqualTo("9780804429573"); // X check digit, either case
+	}
+	
+	@Test
+	void rejectsIsbn10FailingItsChecksum() {
+		assertThat(BookUtils.toIsbn13("0-306-40615-3")).isNull();
+		assertThat(BookUtils.toIsbn13("0-306-40651-2")).isNull(); // Transposed digits
+		assertThat(BookUtils.toIsbn13("X-306-40615-2")).isNull(); // X only as the check digit
+	}
+	
+	@Test
+	void rejectsAnythingElse() {
+		assertThat(BookUtils.toIsbn13(null)).isNull();
+		assertThat(BookUtils.toIsbn13("")).isNull();
+		assertThat(BookUtils.toIsbn13("12345")).isNull();
+		assertThat(BookUtils.toIsbn13("978030640615A")).isNull();
+	}
+}
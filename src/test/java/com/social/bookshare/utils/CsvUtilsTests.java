@@ -0,0 +1,55 @@
+package com.social.bookshare.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class CsvUtilsTests {
+
+	@Test
+	void parsesQuotedFieldsAndEscapes() {
+		List<Map<String, String>> rows = CsvUtils.parse("isbn13,title,comment\n9780306406157,\"Hello, \"\"World\"\"\",\"\"\n");
+		
+		assertThat(rows).hasSize(1);
+		assertThat(rows.get(0)).containsEntry("isbn13", "9780306406157")
+				.containsEntry("title", "Hello, \"World\"")
+				.containsEntry("comment", null); // Blank -> null
+	}
+	
+	@Test
+	void stripsBomAndSkipsBlankLines() {
+		List<Map<String, String>> rows = CsvUtils.parse("\uFEFFisbn13,title\r\n0306406152, Plain \r\n\r\n9780306406157,Other\r\n");
+		
+		assertThat(rows).extracting(row -> row.get("isbn13")).containsExactly("0306406152", "9780306406157");
+		assertThat(rows.get(0)).containsEntry("title", "Plain");
+	}
+	
+	@Test
+	void lowerCasesHeadersRegardlessOfDefaultLocale() {
+		Locale defaultLocale = Locale.getDefault();
+		Locale.setDefault(Locale.forLanguageTag("tr-TR")); // "I".toLowerCase() would be a dotless i
+		try {
+			assertThat(CsvUtils.parse("ISBN13,TITLE\n9780306406157,Title").get(0))
+					.containsEntry("isbn13", "9780306406157")
+					.containsEntry("title", "Title");
+		} finally {
+			Locale.setDefault(defaultLocale);
+		}
+	}
+	
+	@Test
+	void rejectsUnterminatedQuote() {
+		assertThatThrownBy(() -> CsvUtils.parse("title\n\"Open")).isInstanceOf(IllegalArgumentException.class);
+	}
+	
+	@Test
+	void parsesEmptyInput() {
+		assertThat(CsvUtils.parse("")).isEmpty();
+		assertThat(CsvUtils.parse("isbn13,title\n")).isEmpty();
+	}
+}
@@ -0,0 +1,66 @@
+package com.social.bookshare.utils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class GeoHashUtilsTests {
+
+	@Test
+	void encodesKnownHashes() {
+		assertThat(GeoHashUtils.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+		assertThat(GeoHashUtils.encode(37.5665, 126.9780, 5)).isEqualTo("wydm9");
+		assertThat(GeoHashUtils.encode(37.5665, 126.9780, 7)).startsWith("wydm9");
+	}
+
+	@Test
+	void boundsContainTheEncodedPoint() {
+		double[] b = GeoHashUtils.bounds(GeoHashUtils.encode(37.5665, 126.9780, 5));
+
+		assertThat(37.5665).isBetween(b[0], b[2]);
+		assertThat(126.9780).isBetween(b[1], b[3]);
+		assertThat(b[2] - b[0]).isCloseTo(180 / Math.pow(2, 12), within(1e-12)); // 12 latitude bits
+		assertThat(b[3] - b[1]).isCloseTo(360 / Math.pow(2, 13), within(1e-12)); // 13 longitude bits
+	}
+
+	@Test
+	void rejectsInvalidCharacters() {
+		assertThatThrownBy(() -> GeoHashUtils.bounds("wydma")).isInstanceOf(IllegalArgumentException.class); // No 'a' in base32
+	}
+
+	@Test
+	void blockIsTheCellAndItsTouchingNeighbours() {
+		String center = GeoHashUtils.encode(37.5665, 126.9780, 5);
+		double[] c = GeoHashUtils.bounds(center);
+		List<String> block = GeoHashUtils.block(center);
+
+		assertThat(block).hasSize(9).doesNotHaveDuplicates();
+		assertThat(block.get(4)).isEqualTo(center);
+
+		// Row by row from south-west: each cell is offset by whole cells from the center
+		for (int i = 0; i < 9; i++) {
+			double[] b = GeoHashUtils.bounds(block.get(i));
+			int row = i / 3 - 1, col = i % 3 - 1;
+			assertThat(b[0]).isCloseTo(c[0] + row * (c[2] - c[0]), within(1e-9));
+			assertThat(b[1]).isCloseTo(c[1] + col * (c[3] - c[1]), within(1e-9));
+		}
+	}
+
+	@Test
+	void blockIsEmptyNearThePoles() {
+		assertThat(GeoHashUtils.block(GeoHashUtils.encode(89.99, 10, 5))).isEmpty();
+		assertThat(GeoHashUtils.block(GeoHashUtils.encode(-89.99, 10, 5))).isEmpty();
+	}
+
+	@Test
+	void blockWrapsTheAntimeridian() {
+		List<String> block = GeoHashUtils.block(GeoHashUtils.encode(0.01, 179.99, 5));
+
+		assertThat(block).hasSize(9);
+		assertThat(GeoHashUtils.bounds(block.get(5))[1]).isEqualTo(-180.0); // East neighbour starts the other side
+	}
+}